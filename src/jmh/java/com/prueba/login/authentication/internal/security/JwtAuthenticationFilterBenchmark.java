@@ -0,0 +1,88 @@
+package com.prueba.login.authentication.internal.security;
+
+import com.prueba.login.authentication.internal.token.TokenRevocationRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por petición del filtro JWT completo (cabecera, caché de verificados, revocación y contexto
+ * de seguridad) con una cadena simulada que no hace nada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-jwt-secret-key-for-testing-purposes-only-must-be-long-enough";
+    private static final FilterChain NOOP_CHAIN = (request, response) -> {
+    };
+
+    /**
+     * true: el token se sirve desde la caché de verificados; false: se verifica la firma en cada petición.
+     */
+    @Param({"true", "false"})
+    public boolean cached;
+
+    @Param({JwtKeyRing.HS512, JwtKeyRing.RS256})
+    public String algorithm;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(
+                new JwtKeyRing(algorithm, SECRET, "", "", List.of(), true, 3600000), 3600000, meterRegistry);
+        VerifiedTokenCache verifiedTokenCache = cached
+                ? new VerifiedTokenCache(10_000, meterRegistry)
+                : new VerifiedTokenCache(1, meterRegistry) {
+                    @Override
+                    public JwtPrincipal get(String token) {
+                        return null;
+                    }
+                };
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, verifiedTokenCache,
+                new TokenRevocationRegistry(null, null, null, 3600000), meterRegistry);
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken("benchmark", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("READ_USERS")));
+        request = new MockHttpServletRequest("GET", "/api/v1/users/my-profile");
+        request.addHeader("Authorization", "Bearer " + jwtTokenProvider.generateToken(authentication));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication doFilterInternal() throws Exception {
+        try {
+            filter.doFilterInternal(request, response, NOOP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
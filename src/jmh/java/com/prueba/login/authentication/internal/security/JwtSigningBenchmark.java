@@ -0,0 +1,60 @@
+package com.prueba.login.authentication.internal.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de firmar (login/refresh) y verificar (cada petición sin caché) un token por algoritmo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    private static final String SECRET = "benchmark-jwt-secret-key-for-testing-purposes-only-must-be-long-enough";
+
+    @Param({JwtKeyRing.HS512, JwtKeyRing.RS256, JwtKeyRing.ES256, JwtKeyRing.EDDSA})
+    public String algorithm;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing(algorithm, SECRET, "", "", List.of(), true, 3600000);
+        jwtTokenProvider = new JwtTokenProvider(keyRing, 3600000, new SimpleMeterRegistry());
+        authentication = new UsernamePasswordAuthenticationToken("benchmark", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("READ_USERS")));
+        token = jwtTokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtTokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public JwtPrincipal verify() {
+        return jwtTokenProvider.parseToken(token);
+    }
+}
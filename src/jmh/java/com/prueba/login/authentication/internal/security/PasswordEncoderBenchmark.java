@@ -0,0 +1,64 @@
+package com.prueba.login.authentication.internal.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de hash y verificación por algoritmo y costo, para elegir la configuración
+ * de app.security.password en cada tipo de nodo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "benchmark-password";
+
+    /**
+     * Algoritmo y costo con el formato algoritmo:costo.
+     */
+    @Param({"bcrypt:4", "bcrypt:8", "bcrypt:10", "bcrypt:11", "bcrypt:12", "pbkdf2:310000", "pbkdf2:600000", "argon2:2", "argon2:4"})
+    public String configuration;
+
+    private PasswordEncoder encoder;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        String[] parts = configuration.split(":");
+        int cost = Integer.parseInt(parts[1]);
+        encoder = switch (parts[0]) {
+            case PasswordEncoderFactory.BCRYPT -> new BCryptPasswordEncoder(cost);
+            case PasswordEncoderFactory.PBKDF2 -> PasswordEncoderFactory.pbkdf2(cost);
+            case PasswordEncoderFactory.ARGON2 -> PasswordEncoderFactory.argon2(cost);
+            default -> throw new IllegalArgumentException(configuration);
+        };
+        encoded = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, encoded);
+    }
+}
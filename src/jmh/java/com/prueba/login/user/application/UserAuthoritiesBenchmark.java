@@ -0,0 +1,104 @@
+package com.prueba.login.user.application;
+
+import com.prueba.login.user.api.dto.response.UserResponse;
+import com.prueba.login.user.internal.authority.RoleAuthorityIndex;
+import com.prueba.login.user.internal.model.CustomerUser;
+import com.prueba.login.user.internal.model.Permission;
+import com.prueba.login.user.internal.model.PermissionName;
+import com.prueba.login.user.internal.model.Role;
+import com.prueba.login.user.internal.model.RoleName;
+import com.prueba.login.user.internal.repository.RoleRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Costo en memoria de resolver las autoridades de un usuario y de construir su perfil,
+ * con el índice rol → autoridades ya cargado como en producción.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserAuthoritiesBenchmark {
+
+    /**
+     * Número de roles asignados al usuario.
+     */
+    @Param({"1", "3"})
+    public int roleCount;
+
+    private CustomerUser user;
+    private RoleAuthorityIndex roleAuthorityIndex;
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        List<Role> roles = List.of(
+                role(1L, RoleName.ROLE_USER, PermissionName.READ_USERS, PermissionName.WRITE_USERS),
+                role(2L, RoleName.ROLE_ADMIN, PermissionName.values()),
+                role(3L, RoleName.ROLE_MODERATOR, PermissionName.READ_USERS, PermissionName.READ_ROLES));
+        roleAuthorityIndex = new RoleAuthorityIndex(roleRepository(roles));
+        roleAuthorityIndex.rebuild();
+
+        user = CustomerUser.builder()
+                .id(42L)
+                .username("benchmark")
+                .email("benchmark@example.com")
+                .password("{bcrypt}unused")
+                .roles(new HashSet<>(roles.subList(0, roleCount)))
+                .build();
+        userService = new UserService(null, null, roleAuthorityIndex, null, null, null, null, 20, 100);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return roleAuthorityIndex.authoritiesOf(user);
+    }
+
+    @Benchmark
+    public UserResponse toUserResponse() {
+        return userService.toUserResponse(user);
+    }
+
+    private static Role role(Long id, RoleName name, PermissionName... permissions) {
+        Set<Permission> rolePermissions = Arrays.stream(permissions)
+                .map(permission -> Permission.builder().name(permission).build())
+                .collect(Collectors.toSet());
+        return Role.builder().id(id).name(name).permissions(rolePermissions).build();
+    }
+
+    /**
+     * Repositorio mínimo que solo responde a la consulta usada para construir el índice.
+     */
+    private static RoleRepository roleRepository(List<Role> roles) {
+        return (RoleRepository) Proxy.newProxyInstance(RoleRepository.class.getClassLoader(),
+                new Class<?>[] {RoleRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllWithPermissions")) {
+                        return roles;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,90 @@
+package com.prueba.login.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades del sistema (-Dloadtest.*).
+ */
+record LoadTestSettings(
+        int users,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Scenario, Integer> mix,
+        Path report
+) {
+
+    private static final String DEFAULT_MIX = "login=15,my-profile=45,list=20,register=8,patch=8,delete=4";
+    private static final String THREADING_MIX = "login=25,my-profile=75";
+
+    static LoadTestSettings fromSystemProperties() {
+        return fromSystemProperties(DEFAULT_MIX, "target/loadtest-report.txt");
+    }
+
+    /**
+     * Parámetros de la comparación de modos de hilos: por defecto solo login y my-profile.
+     */
+    static LoadTestSettings forThreadingComparison() {
+        return fromSystemProperties(THREADING_MIX, "target/loadtest-threads-report.txt");
+    }
+
+    private static LoadTestSettings fromSystemProperties(String defaultMix, String defaultReport) {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 1000),
+                Integer.getInteger("loadtest.concurrency", 32),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "5s")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s")),
+                parseMix(System.getProperty("loadtest.mix", defaultMix)),
+                Path.of(System.getProperty("loadtest.report", defaultReport)));
+    }
+
+    /**
+     * Pesos relativos por escenario con el formato escenario=peso separados por comas.
+     */
+    static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Entrada de loadtest.mix inválida: " + entry);
+            }
+            Scenario scenario = Scenario.valueOf(parts[0].trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(scenario, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix no define ningún escenario");
+        }
+        return weights;
+    }
+
+    /**
+     * Operaciones que ejecuta cada usuario virtual, con el estado HTTP esperado.
+     */
+    enum Scenario {
+        REGISTER(201),
+        LOGIN(200),
+        MY_PROFILE(200),
+        LIST(200),
+        PATCH(200),
+        DELETE(204);
+
+        final int expectedStatus;
+
+        Scenario(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+}
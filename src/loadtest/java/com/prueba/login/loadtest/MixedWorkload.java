@@ -0,0 +1,291 @@
+package com.prueba.login.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prueba.login.loadtest.LoadTestSettings.Scenario;
+import com.prueba.login.user.api.dto.response.UserImportResult;
+import com.prueba.login.user.application.UserImportService;
+import com.prueba.login.user.internal.model.Permission;
+import com.prueba.login.user.internal.model.PermissionName;
+import com.prueba.login.user.internal.model.Role;
+import com.prueba.login.user.internal.model.RoleName;
+import com.prueba.login.user.internal.repository.PermissionRepository;
+import com.prueba.login.user.internal.repository.RoleRepository;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mezcla de escenarios HTTP contra una instancia arrancada de la aplicación: siembra los usuarios,
+ * lanza los usuarios virtuales durante la ventana medida y devuelve latencias y resultados por escenario.
+ */
+final class MixedWorkload {
+
+    private static final String PASSWORD = "loadtest-password";
+    private static final String JSON = "application/json";
+
+    private final ApplicationContext context;
+    private final int port;
+    private final LoadTestSettings settings;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+    private final Scenario[] weightedScenarios;
+    private final AtomicLong registrations = new AtomicLong();
+    private final ConcurrentLinkedQueue<Long> deletable = new ConcurrentLinkedQueue<>();
+
+    private volatile long measureFromNanos;
+
+    MixedWorkload(ApplicationContext context, int port, LoadTestSettings settings) {
+        this.context = context;
+        this.port = port;
+        this.settings = settings;
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new ScenarioStats());
+        }
+        this.weightedScenarios = weightedScenarios(settings.mix());
+    }
+
+    /**
+     * Siembra loadtest.users usuarios y ejecuta la mezcla durante el calentamiento y la ventana medida.
+     */
+    Result run() throws Exception {
+        List<SeededUser> users = seedUsers(settings.users());
+
+        long start = System.nanoTime();
+        measureFromNanos = start + settings.warmup().toNanos();
+        long deadline = measureFromNanos + settings.duration().toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(settings.concurrency());
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < settings.concurrency(); i++) {
+                SeededUser user = users.get(i % users.size());
+                workers.add(executor.submit(() -> runVirtualUser(user, deadline)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<Scenario, Histogram> histograms = new EnumMap<>(Scenario.class);
+        stats.forEach((scenario, scenarioStats) -> histograms.put(scenario, scenarioStats.histogram()));
+        return new Result(histograms, stats, Duration.ofNanos(deadline - measureFromNanos));
+    }
+
+    /**
+     * Bucle de un usuario virtual: inicia sesión y ejecuta escenarios al azar según sus pesos.
+     */
+    private void runVirtualUser(SeededUser user, long deadline) {
+        String token = login(user.username());
+        while (System.nanoTime() < deadline) {
+            Scenario scenario = weightedScenarios[ThreadLocalRandom.current().nextInt(weightedScenarios.length)];
+            Long deleteId = scenario == Scenario.DELETE ? deletable.poll() : null;
+            if (scenario == Scenario.DELETE && deleteId == null) {
+                scenario = Scenario.REGISTER;
+            }
+
+            HttpRequest request = switch (scenario) {
+                case REGISTER -> register();
+                case LOGIN -> post("/api/v1/auth/login", credentials(user.username()), null);
+                case MY_PROFILE -> get("/api/v1/users/my-profile", token);
+                case LIST -> get("/api/v1/users?size=20&after="
+                        + ThreadLocalRandom.current().nextLong(Math.max(1, user.id())), token);
+                case PATCH -> patch(user, token);
+                case DELETE -> delete(deleteId, token);
+            };
+
+            HttpResponse<String> response = execute(scenario, request);
+            if (response != null && response.statusCode() == scenario.expectedStatus) {
+                if (scenario == Scenario.LOGIN) {
+                    token = read(response.body()).get("accessToken").asText();
+                } else if (scenario == Scenario.REGISTER) {
+                    deletable.add(read(response.body()).get("id").asLong());
+                }
+            }
+        }
+    }
+
+    private HttpResponse<String> execute(Scenario scenario, HttpRequest request) {
+        long started = System.nanoTime();
+        HttpResponse<String> response = null;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            // se contabiliza como error sin respuesta
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        long finished = System.nanoTime();
+
+        if (started >= measureFromNanos) {
+            int status = response != null ? response.statusCode() : ScenarioStats.NO_RESPONSE;
+            stats.get(scenario).record(finished - started, status, status == scenario.expectedStatus);
+        }
+        return response;
+    }
+
+    private String login(String username) {
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    post("/api/v1/auth/login", credentials(username), null), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login inicial fallido para " + username + ": " + response.statusCode());
+            }
+            return read(response.body()).get("accessToken").asText();
+        } catch (IOException e) {
+            throw new IllegalStateException("Login inicial fallido para " + username, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest register() {
+        String username = "lt-new-" + registrations.incrementAndGet() + "-" + ThreadLocalRandom.current().nextInt(1_000_000);
+        return post("/api/v1/users/register", json(Map.of(
+                "username", username,
+                "email", username + "@loadtest.local",
+                "password", PASSWORD)), null);
+    }
+
+    private HttpRequest patch(SeededUser user, String token) {
+        String email = user.username() + "+" + ThreadLocalRandom.current().nextInt(1_000_000) + "@loadtest.local";
+        return request("/api/v1/users/" + user.id(), token)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(json(Map.of("email", email))))
+                .header("Content-Type", JSON)
+                .build();
+    }
+
+    private HttpRequest delete(Long id, String token) {
+        return request("/api/v1/users/" + id, token).DELETE().build();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        return request(path, token)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .header("Content-Type", JSON)
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private String credentials(String username) {
+        return json(Map.of("username", username, "password", PASSWORD));
+    }
+
+    /**
+     * Crea roles, permisos y usuarios con la importación masiva, que es la vía más rápida para N grande.
+     */
+    private List<SeededUser> seedUsers(int count) throws IOException {
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        PermissionRepository permissionRepository = context.getBean(PermissionRepository.class);
+        if (!roleRepository.existsByName(RoleName.ROLE_USER)) {
+            Permission read = permissionRepository.save(Permission.builder().name(PermissionName.READ_USERS).build());
+            Permission write = permissionRepository.save(Permission.builder().name(PermissionName.WRITE_USERS).build());
+            Permission delete = permissionRepository.save(Permission.builder().name(PermissionName.DELETE_USERS).build());
+            roleRepository.save(Role.builder().name(RoleName.ROLE_USER).permissions(Set.of(read, write)).build());
+            roleRepository.save(Role.builder().name(RoleName.ROLE_ADMIN).permissions(Set.of(read, write, delete)).build());
+        }
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String username = "lt-user-" + i;
+            ndjson.append(json(Map.of("username", username, "email", username + "@loadtest.local", "password", PASSWORD)))
+                    .append('\n');
+        }
+
+        List<SeededUser> users = new ArrayList<>(count);
+        context.getBean(UserImportService.class).importUsers(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)),
+                UserImportService.Format.NDJSON, result -> {
+                    if (result.id() != null) {
+                        users.add(new SeededUser(result.id(), result.username()));
+                    } else {
+                        throw new IllegalStateException("No se pudo sembrar " + describe(result));
+                    }
+                });
+        return users;
+    }
+
+    private static Scenario[] weightedScenarios(Map<Scenario, Integer> mix) {
+        List<Scenario> scenarios = new ArrayList<>();
+        mix.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                scenarios.add(scenario);
+            }
+        });
+        return scenarios.toArray(Scenario[]::new);
+    }
+
+    private JsonNode read(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Respuesta JSON inválida: " + body, e);
+        }
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String describe(UserImportResult result) {
+        return result.username() + ": " + result.error();
+    }
+
+    private record SeededUser(Long id, String username) {
+    }
+
+    /**
+     * Latencias de la ventana medida y contadores por escenario.
+     */
+    record Result(Map<Scenario, Histogram> histograms, Map<Scenario, ScenarioStats> stats, Duration measured) {
+
+        long requests() {
+            return histograms.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        }
+    }
+}
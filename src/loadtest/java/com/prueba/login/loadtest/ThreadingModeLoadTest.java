@@ -0,0 +1,134 @@
+package com.prueba.login.loadtest;
+
+import com.prueba.login.LoginApplication;
+import com.prueba.login.loadtest.LoadTestSettings.Scenario;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ejecuta la mezcla login/my-profile dos veces, con spring.threads.virtual.enabled=false y =true, cada una
+ * sobre una instancia y una base H2 propias, y escribe ambos resultados lado a lado en loadtest.report.
+ * El modo de cada columna es el que publica la aplicación en la métrica app.threads.virtual, no el pedido:
+ * sobre un runtime anterior a Java 21 las dos ejecuciones usan hilos de plataforma y el informe lo indica.
+ * <p>
+ * {@code mvn -Ploadtest test -Dtest=ThreadingModeLoadTest -Dloadtest.compare-threads=true -Dloadtest.concurrency=200}
+ */
+@EnabledIfSystemProperty(named = "loadtest.compare-threads", matches = "true")
+class ThreadingModeLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeLoadTest.class);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.forThreadingComparison();
+
+        List<ModeRun> runs = new ArrayList<>();
+        for (boolean virtualRequested : new boolean[] {false, true}) {
+            runs.add(run(settings, virtualRequested));
+        }
+
+        String report = report(settings, runs);
+        Files.createDirectories(settings.report().toAbsolutePath().getParent());
+        Files.writeString(settings.report(), report, StandardCharsets.UTF_8);
+        log.warn("Comparación de modos de hilos escrita en {}\n{}", settings.report().toAbsolutePath(), report);
+
+        assertThat(runs).allSatisfy(run -> assertThat(run.result().requests()).as("peticiones medidas").isPositive());
+    }
+
+    /**
+     * Arranca una instancia con el modo pedido, ejecuta la mezcla y la detiene antes de la siguiente.
+     * Los argumentos de línea de comandos prevalecen sobre application.yml de test.
+     */
+    private static ModeRun run(LoadTestSettings settings, boolean virtualRequested) throws Exception {
+        String mode = virtualRequested ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoginApplication.class).run(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--spring.threads.virtual.enabled=" + virtualRequested,
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            boolean virtualActive = context.getBean(MeterRegistry.class)
+                    .get("app.threads.virtual").gauge().value() == 1;
+            log.warn("Ejecutando la mezcla con spring.threads.virtual.enabled={} (app.threads.virtual={})",
+                    virtualRequested, virtualActive ? 1 : 0);
+
+            return new ModeRun(virtualRequested, virtualActive, new MixedWorkload(context, port, settings).run());
+        }
+    }
+
+    private static String report(LoadTestSettings settings, List<ModeRun> runs) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Comparación de modos de hilos %s: Java %d usuarios=%d concurrencia=%d "
+                        + "calentamiento=%s duración=%s mezcla=%s%n",
+                Instant.now(), Runtime.version().feature(), settings.users(), settings.concurrency(),
+                settings.warmup(), settings.duration(), settings.mix()));
+        for (ModeRun run : runs) {
+            out.append(String.format("  %-8s spring.threads.virtual.enabled=%s app.threads.virtual=%d%s%n",
+                    run.label(), run.virtualRequested(), run.virtualActive() ? 1 : 0,
+                    run.virtualRequested() && !run.virtualActive() ? " (requiere Java 21+: hilos de plataforma)" : ""));
+        }
+
+        out.append(String.format("%-11s", "endpoint"));
+        for (ModeRun run : runs) {
+            out.append(String.format(" | %-8s %9s %8s %8s %8s %7s", run.label(), "req/s", "p50 ms", "p99 ms",
+                    "max ms", "error%"));
+        }
+        out.append(System.lineSeparator());
+
+        for (Scenario scenario : settings.mix().keySet()) {
+            out.append(String.format("%-11s", scenario.label()));
+            for (ModeRun run : runs) {
+                Histogram histogram = run.result().histograms().get(scenario);
+                appendColumns(out, histogram, run.result().stats().get(scenario).errors(),
+                        run.result().measured().toNanos() / 1e9);
+            }
+            out.append(System.lineSeparator());
+        }
+
+        out.append(String.format("%-11s", "TOTAL"));
+        for (ModeRun run : runs) {
+            Histogram total = new Histogram(3);
+            long errors = 0;
+            for (Scenario scenario : settings.mix().keySet()) {
+                total.add(run.result().histograms().get(scenario));
+                errors += run.result().stats().get(scenario).errors();
+            }
+            appendColumns(out, total, errors, run.result().measured().toNanos() / 1e9);
+        }
+        out.append(System.lineSeparator());
+        return out.toString();
+    }
+
+    private static void appendColumns(StringBuilder out, Histogram histogram, long errors, double seconds) {
+        long count = histogram.getTotalCount();
+        out.append(String.format(" | %-8s %9.1f %8.2f %8.2f %8.2f %6.2f%%", "",
+                count / seconds, millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue()),
+                count == 0 ? 0.0 : 100.0 * errors / count));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private record ModeRun(boolean virtualRequested, boolean virtualActive, MixedWorkload.Result result) {
+
+        String label() {
+            return virtualRequested ? "virtual" : "platform";
+        }
+    }
+}
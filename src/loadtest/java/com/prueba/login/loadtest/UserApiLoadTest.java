@@ -0,0 +1,102 @@
+package com.prueba.login.loadtest;
+
+import com.prueba.login.loadtest.LoadTestSettings.Scenario;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de la API HTTP completa sobre el perfil de test (H2 en memoria), sin servicios externos.
+ * Siembra loadtest.users usuarios, lanza loadtest.concurrency usuarios virtuales que ejecutan la mezcla
+ * de escenarios durante loadtest.duration (tras loadtest.warmup) y escribe throughput, percentiles de
+ * latencia y tasa de error por endpoint en loadtest.report.
+ * <p>
+ * Solo se ejecuta con el perfil Maven loadtest: {@code mvn -Ploadtest test -Dloadtest.concurrency=64}.
+ * Cualquier propiedad de la aplicación se puede sobrescribir igual, p. ej. -Dapp.security.password.strength=10
+ * o -Dspring.threads.virtual.enabled=true sobre Java 21. Para comparar ambos modos de hilos en la misma
+ * ejecución está {@link ThreadingModeLoadTest}.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.root=WARN")
+class UserApiLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserApiLoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private LoadTestSettings settings;
+
+    @Test
+    void runMixedWorkload() throws Exception {
+        settings = LoadTestSettings.fromSystemProperties();
+        log.warn("Sembrando {} usuarios; {} usuarios virtuales durante {} (+{} de calentamiento)",
+                settings.users(), settings.concurrency(), settings.duration(), settings.warmup());
+
+        MixedWorkload.Result result = new MixedWorkload(context, port, settings).run();
+
+        String report = report(result);
+        Files.createDirectories(settings.report().toAbsolutePath().getParent());
+        Files.writeString(settings.report(), report, StandardCharsets.UTF_8);
+        log.warn("Informe de carga escrito en {}\n{}", settings.report().toAbsolutePath(), report);
+
+        assertThat(result.requests()).as("peticiones medidas").isPositive();
+    }
+
+    private String report(MixedWorkload.Result result) {
+        double seconds = result.measured().toNanos() / 1e9;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Prueba de carga %s: usuarios=%d concurrencia=%d calentamiento=%s duración=%s mezcla=%s%n",
+                Instant.now(), settings.users(), settings.concurrency(), settings.warmup(), settings.duration(),
+                settings.mix()));
+        out.append(String.format("%-11s %9s %9s %8s %9s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "requests", "req/s", "errors", "error%", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms",
+                "statuses"));
+
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<Scenario, Histogram> entry : result.histograms().entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            ScenarioStats scenarioStats = result.stats().get(entry.getKey());
+            total.add(histogram);
+            totalErrors += scenarioStats.errors();
+            appendRow(out, entry.getKey().label(), histogram, scenarioStats.errors(), seconds,
+                    scenarioStats.statuses().toString());
+        }
+        appendRow(out, "TOTAL", total, totalErrors, seconds, "");
+        return out.toString();
+    }
+
+    private static void appendRow(StringBuilder out, String label, Histogram histogram, long errors,
+                                  double seconds, String statuses) {
+        long count = histogram.getTotalCount();
+        out.append(String.format("%-11s %9d %9.1f %8d %8.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                label, count, count / seconds, errors, count == 0 ? 0.0 : 100.0 * errors / count,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(95)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()), statuses));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
@@ -3,12 +3,16 @@ package com.prueba.login;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.modulith.Modulithic;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Aplicación principal configurada con Spring Modulith.
  */
 @SpringBootApplication
 @Modulithic
+@EnableScheduling
+@EnableAsync
 public class LoginApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,49 @@
+package com.prueba.login;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Informa el modo de ejecución de peticiones (hilos de plataforma o virtuales).
+ * El modo virtual se activa con spring.threads.virtual.enabled y Spring Boot solo lo aplica
+ * sobre un runtime Java 21 o superior; el build sigue compilando para Java 17.
+ */
+@Component
+public class ThreadingModeReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeReporter.class);
+    private static final int VIRTUAL_THREADS_MIN_JAVA = 21;
+
+    private final boolean virtualThreadsRequested;
+    private final boolean virtualThreadsActive;
+
+    public ThreadingModeReporter(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsRequested,
+            MeterRegistry meterRegistry) {
+        this.virtualThreadsRequested = virtualThreadsRequested;
+        this.virtualThreadsActive = virtualThreadsRequested
+                && Runtime.version().feature() >= VIRTUAL_THREADS_MIN_JAVA;
+
+        Gauge.builder("app.threads.virtual", () -> virtualThreadsActive ? 1 : 0)
+                .description("1 si las peticiones se ejecutan en hilos virtuales")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreadsRequested && !virtualThreadsActive) {
+            log.warn("spring.threads.virtual.enabled=true pero el runtime es Java {}: se requieren Java {}+, "
+                    + "las peticiones se atienden con hilos de plataforma", javaVersion, VIRTUAL_THREADS_MIN_JAVA);
+        } else {
+            log.info("Modo de ejecución de peticiones: {} (Java {})",
+                    virtualThreadsActive ? "hilos virtuales" : "hilos de plataforma", javaVersion);
+        }
+    }
+}
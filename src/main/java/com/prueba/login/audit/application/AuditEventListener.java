@@ -0,0 +1,93 @@
+package com.prueba.login.audit.application;
+
+import com.prueba.login.audit.internal.AuditEventWriter;
+import com.prueba.login.audit.internal.AuditRecord;
+import com.prueba.login.audit.internal.model.AuditEventType;
+import com.prueba.login.authentication.api.events.LoginFailed;
+import com.prueba.login.authentication.api.events.LoginSucceeded;
+import com.prueba.login.user.api.events.UserDeleted;
+import com.prueba.login.user.api.events.UserRegistered;
+import com.prueba.login.user.api.events.UserUpdated;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Traslada los eventos de usuario y de login al registro de auditoría.
+ * <p>
+ * Los eventos de usuario se publican dentro de la transacción que los origina, por lo que el
+ * registro de publicaciones de Spring Modulith los persiste junto a ella; el listener asíncrono
+ * espera a que su lote se confirme, de modo que una caída antes de escribirlo deja la publicación
+ * incompleta y se reenvía al reiniciar. Los eventos de login solo se encolan: no añaden ninguna
+ * escritura síncrona al login y un lote fallido se reintenta, a costa de poder perder lo pendiente
+ * si el proceso cae.
+ */
+@Component
+@ApplicationModule
+public class AuditEventListener {
+
+    private final AuditEventWriter auditEventWriter;
+    private final Duration writeTimeout;
+
+    public AuditEventListener(AuditEventWriter auditEventWriter,
+                              @Value("${app.audit.write-timeout:30s}") Duration writeTimeout) {
+        this.auditEventWriter = auditEventWriter;
+        this.writeTimeout = writeTimeout;
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(UserRegistered event) {
+        await(auditEventWriter.append(new AuditRecord(AuditEventType.USER_REGISTERED,
+                event.userId(), event.username(), null, event.occurredAt())));
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(UserUpdated event) {
+        await(auditEventWriter.append(new AuditRecord(AuditEventType.USER_UPDATED,
+                event.userId(), event.username(), null, event.occurredAt())));
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(UserDeleted event) {
+        await(auditEventWriter.append(new AuditRecord(AuditEventType.USER_DELETED,
+                event.userId(), event.username(), null, event.occurredAt())));
+    }
+
+    @EventListener
+    public void on(LoginSucceeded event) {
+        auditEventWriter.enqueue(new AuditRecord(AuditEventType.LOGIN_SUCCEEDED,
+                event.userId(), event.username(), event.clientAddress(), event.occurredAt()));
+    }
+
+    @EventListener
+    public void on(LoginFailed event) {
+        auditEventWriter.enqueue(new AuditRecord(AuditEventType.LOGIN_FAILED,
+                null, event.username(), event.clientAddress(), event.occurredAt()));
+    }
+
+    /**
+     * Bloquea hasta que el lote se confirme; si falla, la publicación queda pendiente de reintento.
+     */
+    private void await(CompletableFuture<Void> written) {
+        try {
+            written.get(writeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Escritura de auditoría interrumpida", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("No se pudo escribir el evento de auditoría", e);
+        }
+    }
+}
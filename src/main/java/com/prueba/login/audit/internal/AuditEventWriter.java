@@ -0,0 +1,203 @@
+package com.prueba.login.audit.internal;
+
+import com.prueba.login.audit.internal.model.AuditEventType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Escritor de auditoría por lotes (group commit).
+ * Las entradas se encolan en memoria y un flush periódico las escribe con inserciones JDBC por lotes,
+ * junto con la actualización de last_logins, en una única transacción. Las entradas de append exponen
+ * un future que se completa cuando su lote quedó confirmado y falla con él; las de enqueue no las
+ * espera nadie, así que un lote fallido las vuelve a encolar hasta max-attempts intentos.
+ */
+@Component
+@ApplicationModule
+public class AuditEventWriter {
+
+    private static final String INSERT_AUDIT_SQL =
+            "INSERT INTO audit_events (event_type, user_id, username, client_address, occurred_at) VALUES (?, ?, ?, ?, ?)";
+    private static final Logger log = LoggerFactory.getLogger(AuditEventWriter.class);
+    /**
+     * Un login reintentado no debe pisar otro más reciente ya escrito.
+     */
+    private static final String UPDATE_LAST_LOGIN_SQL =
+            "UPDATE last_logins SET last_login_at = ?, client_address = ? WHERE user_id = ? AND last_login_at <= ?";
+    private static final String INSERT_LAST_LOGIN_SQL =
+            "INSERT INTO last_logins (last_login_at, client_address, user_id) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final ConcurrentLinkedQueue<PendingRecord> pending = new ConcurrentLinkedQueue<>();
+
+    public AuditEventWriter(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.audit.batch-size:500}") int batchSize,
+                            @Value("${app.audit.max-attempts:100}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Encola una entrada; el future se completa cuando el lote que la contiene se confirma
+     * y falla si el lote no se puede escribir.
+     */
+    public CompletableFuture<Void> append(AuditRecord record) {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        pending.add(new PendingRecord(record, written, 1));
+        return written;
+    }
+
+    /**
+     * Encola una entrada que nadie espera; si su lote falla se reintenta en los siguientes flush.
+     */
+    public void enqueue(AuditRecord record) {
+        pending.add(new PendingRecord(record, null, 1));
+    }
+
+    /**
+     * Escribe lo pendiente en lotes de hasta batch-size entradas.
+     */
+    @Scheduled(fixedDelayString = "${app.audit.flush-interval:100ms}")
+    public void flush() {
+        // los reintentos vuelven a la cola al terminar, no dentro de este mismo flush
+        List<PendingRecord> retries = new ArrayList<>();
+        List<PendingRecord> batch = new ArrayList<>(batchSize);
+        for (PendingRecord next; (next = pending.poll()) != null; ) {
+            batch.add(next);
+            if (batch.size() == batchSize) {
+                write(batch, retries);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch, retries);
+        }
+        pending.addAll(retries);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(List<PendingRecord> batch, List<PendingRecord> retries) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                insertAuditEvents(batch);
+                upsertLastLogins(batch);
+            });
+            batch.stream().filter(PendingRecord::awaited).forEach(record -> record.written().complete(null));
+        } catch (RuntimeException e) {
+            int dropped = 0;
+            for (PendingRecord record : batch) {
+                if (record.awaited()) {
+                    record.written().completeExceptionally(e);
+                } else if (record.attempts() < maxAttempts) {
+                    retries.add(new PendingRecord(record.record(), null, record.attempts() + 1));
+                } else {
+                    dropped++;
+                }
+            }
+            log.warn("No se pudo escribir un lote de auditoría de {} entradas ({} descartadas tras {} intentos)",
+                    batch.size(), dropped, maxAttempts, e);
+        }
+    }
+
+    private void insertAuditEvents(List<PendingRecord> batch) {
+        jdbcTemplate.batchUpdate(INSERT_AUDIT_SQL, batch, batch.size(), (ps, pendingRecord) -> {
+            AuditRecord record = pendingRecord.record();
+            ps.setString(1, record.type().name());
+            if (record.userId() != null) {
+                ps.setLong(2, record.userId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setString(3, record.username());
+            ps.setString(4, record.clientAddress());
+            ps.setTimestamp(5, Timestamp.from(record.occurredAt()));
+        });
+    }
+
+    /**
+     * Actualiza last_logins con el login más reciente de cada usuario del lote;
+     * los usuarios sin fila previa se insertan en un segundo lote.
+     */
+    private void upsertLastLogins(List<PendingRecord> batch) {
+        Map<Long, AuditRecord> latest = new LinkedHashMap<>();
+        for (PendingRecord pendingRecord : batch) {
+            AuditRecord record = pendingRecord.record();
+            if (record.type() == AuditEventType.LOGIN_SUCCEEDED && record.userId() != null) {
+                latest.merge(record.userId(), record, (current, candidate) ->
+                        candidate.occurredAt().isAfter(current.occurredAt()) ? candidate : current);
+            }
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+
+        List<AuditRecord> logins = new ArrayList<>(latest.values());
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, logins, logins.size(),
+                this::bindLastLoginUpdate);
+
+        List<AuditRecord> missing = new ArrayList<>();
+        for (int i = 0; i < logins.size(); i++) {
+            if (updated[0][i] == 0) {
+                missing.add(logins.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_LAST_LOGIN_SQL, missing, missing.size(), this::bindLastLogin);
+            } catch (DuplicateKeyException e) {
+                // otro nodo insertó la fila entre el UPDATE y el INSERT
+                jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, missing, missing.size(), this::bindLastLoginUpdate);
+            }
+        }
+    }
+
+    private void bindLastLogin(PreparedStatement ps, AuditRecord record) throws SQLException {
+        ps.setTimestamp(1, Timestamp.from(record.occurredAt()));
+        ps.setString(2, record.clientAddress());
+        ps.setLong(3, record.userId());
+    }
+
+    private void bindLastLoginUpdate(PreparedStatement ps, AuditRecord record) throws SQLException {
+        bindLastLogin(ps, record);
+        ps.setTimestamp(4, Timestamp.from(record.occurredAt()));
+    }
+
+    /**
+     * Entrada pendiente; written es null cuando nadie espera su escritura.
+     */
+    private record PendingRecord(AuditRecord record, CompletableFuture<Void> written, int attempts) {
+
+        boolean awaited() {
+            return written != null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.prueba.login.audit.internal;
+
+import com.prueba.login.audit.internal.model.AuditEventType;
+
+import java.time.Instant;
+
+/**
+ * Entrada de auditoría pendiente de escritura.
+ */
+public record AuditRecord(
+        AuditEventType type,
+        Long userId,
+        String username,
+        String clientAddress,
+        Instant occurredAt
+) {
+}
@@ -0,0 +1,42 @@
+package com.prueba.login.audit.internal.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Entrada del registro de auditoría. Se escribe en lotes JDBC desde AuditEventWriter.
+ */
+@Entity
+@Table(
+    name = "audit_events",
+    indexes = @Index(name = "idx_audit_events_user_id_occurred_at", columnList = "user_id, occurred_at")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private AuditEventType eventType;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(length = 50)
+    private String username;
+
+    @Column(name = "client_address", length = 45)
+    private String clientAddress;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
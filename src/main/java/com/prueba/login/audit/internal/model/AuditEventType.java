@@ -0,0 +1,12 @@
+package com.prueba.login.audit.internal.model;
+
+/**
+ * Tipos de eventos registrados en la auditoría.
+ */
+public enum AuditEventType {
+    USER_REGISTERED,
+    USER_UPDATED,
+    USER_DELETED,
+    LOGIN_SUCCEEDED,
+    LOGIN_FAILED
+}
@@ -0,0 +1,29 @@
+package com.prueba.login.audit.internal.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Último login correcto de cada usuario.
+ */
+@Entity
+@Table(name = "last_logins")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LastLogin {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_login_at", nullable = false)
+    private Instant lastLoginAt;
+
+    @Column(name = "client_address", length = 45)
+    private String clientAddress;
+}
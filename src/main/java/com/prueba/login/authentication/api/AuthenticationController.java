@@ -1,13 +1,17 @@
 package com.prueba.login.authentication.api;
 
 import com.prueba.login.authentication.api.dto.request.LoginRequest;
+import com.prueba.login.authentication.api.dto.request.RefreshTokenRequest;
 import com.prueba.login.authentication.api.dto.response.AuthenticationResponse;
 import com.prueba.login.authentication.application.AuthenticationService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -28,8 +32,28 @@ public class AuthenticationController {
      * Autentica un usuario y devuelve un token JWT.
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthenticationResponse> login(@Valid @RequestBody LoginRequest request) {
-        AuthenticationResponse response = authenticationService.authenticate(request);
+    public ResponseEntity<AuthenticationResponse> login(@Valid @RequestBody LoginRequest request,
+                                                        HttpServletRequest httpRequest) {
+        AuthenticationResponse response = authenticationService.authenticate(request, httpRequest.getRemoteAddr());
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
+
+    /**
+     * Renueva el token JWT a partir de un refresh token, que queda invalidado.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        AuthenticationResponse response = authenticationService.refresh(request);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Cierra la sesión: revoca el token de acceso actual y, opcionalmente, el refresh token.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
+        authenticationService.logout(authorization.substring("Bearer ".length()), request);
+        return ResponseEntity.noContent().build();
+    }
 }
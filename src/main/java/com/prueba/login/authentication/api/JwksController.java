@@ -0,0 +1,46 @@
+package com.prueba.login.authentication.api;
+
+import com.prueba.login.authentication.application.AuthenticationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Publica las claves públicas de firma JWT (RFC 7517) para la verificación local en otros servicios.
+ */
+@RestController
+public class JwksController {
+
+    private final AuthenticationService authenticationService;
+    private final CacheControl cacheControl;
+
+    public JwksController(AuthenticationService authenticationService,
+                          @Value("${app.jwt.signing.jwks-max-age:10m}") Duration maxAge) {
+        this.authenticationService = authenticationService;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    /**
+     * Devuelve el JWKS vigente; responde 304 si el cliente ya tiene la misma versión.
+     */
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks(WebRequest request) {
+        String jwks = authenticationService.getJsonWebKeySet();
+        String etag = "\"" + DigestUtils.md5DigestAsHex(jwks.getBytes(StandardCharsets.UTF_8)) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .body(jwks);
+    }
+}
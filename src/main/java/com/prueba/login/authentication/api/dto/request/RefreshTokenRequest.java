@@ -0,0 +1,11 @@
+package com.prueba.login.authentication.api.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Solicitud de renovación de tokens con un refresh token.
+ */
+public record RefreshTokenRequest(
+        @NotBlank(message = "El refresh token es requerido")
+        String refreshToken
+) {}
@@ -1,19 +1,18 @@
 package com.prueba.login.authentication.api.dto.response;
 
-import java.util.Set;
-
 /**
- * Respuesta de autenticación exitosa con token JWT.
+ * Respuesta de autenticación exitosa con token JWT de acceso y refresh token.
  */
 public record AuthenticationResponse(
         String accessToken,
+        String refreshToken,
         String tokenType,
         Long expiresIn
 ) {
     /**
-     * Constructor estático para crear una respuesta básica con solo el token.
+     * Constructor estático para crear una respuesta Bearer con la expiración del token de acceso en segundos.
      */
-    public static AuthenticationResponse withToken(String accessToken) {
-        return new AuthenticationResponse(accessToken, "Bearer", 86400L);
+    public static AuthenticationResponse of(String accessToken, String refreshToken, long expiresIn) {
+        return new AuthenticationResponse(accessToken, refreshToken, "Bearer", expiresIn);
     }
 }
@@ -0,0 +1,13 @@
+package com.prueba.login.authentication.api.events;
+
+import java.time.Instant;
+
+/**
+ * Evento publicado tras un login rechazado por credenciales incorrectas o usuario inexistente.
+ */
+public record LoginFailed(
+    String username,
+    String clientAddress,
+    Instant occurredAt
+) {
+}
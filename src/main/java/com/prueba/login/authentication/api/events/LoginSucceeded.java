@@ -0,0 +1,14 @@
+package com.prueba.login.authentication.api.events;
+
+import java.time.Instant;
+
+/**
+ * Evento publicado tras un login con credenciales correctas.
+ */
+public record LoginSucceeded(
+    Long userId,
+    String username,
+    String clientAddress,
+    Instant occurredAt
+) {
+}
@@ -1,14 +1,36 @@
 package com.prueba.login.authentication.application;
 
 import com.prueba.login.authentication.api.dto.request.LoginRequest;
+import com.prueba.login.authentication.api.dto.request.RefreshTokenRequest;
 import com.prueba.login.authentication.api.dto.response.AuthenticationResponse;
+import com.prueba.login.authentication.api.events.LoginFailed;
+import com.prueba.login.authentication.api.events.LoginSucceeded;
+import com.prueba.login.authentication.internal.oauth2.SocialLoginPrincipal;
+import com.prueba.login.authentication.internal.security.JwtKeyRing;
+import com.prueba.login.authentication.internal.security.LoginAttemptLimiter;
+import com.prueba.login.authentication.internal.security.JwtPrincipal;
 import com.prueba.login.authentication.internal.security.JwtTokenProvider;
+import com.prueba.login.authentication.internal.token.InvalidRefreshTokenException;
+import com.prueba.login.authentication.internal.token.RefreshTokenStore;
+import com.prueba.login.authentication.internal.token.TokenRevocationRegistry;
+import com.prueba.login.user.application.UserService;
+import com.prueba.login.user.internal.authority.RoleAuthorityIndex;
+import com.prueba.login.user.internal.model.CustomerUser;
+import com.prueba.login.user.internal.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.modulith.ApplicationModule;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
 
 /**
  * Servicio de aplicación para la gestión de autenticación.
@@ -19,24 +41,132 @@ public class AuthenticationService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final JwtKeyRing jwtKeyRing;
+    private final RefreshTokenStore refreshTokenStore;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final UserRepository userRepository;
+    private final RoleAuthorityIndex roleAuthorityIndex;
+    private final UserService userService;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final UserDetailsService userDetailsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate primaryTransaction;
 
     public AuthenticationService(AuthenticationManager authenticationManager, 
-                                JwtTokenProvider jwtTokenProvider) {
+                                JwtTokenProvider jwtTokenProvider,
+                                JwtKeyRing jwtKeyRing,
+                                RefreshTokenStore refreshTokenStore,
+                                TokenRevocationRegistry tokenRevocationRegistry,
+                                UserRepository userRepository,
+                                RoleAuthorityIndex roleAuthorityIndex,
+                                UserService userService,
+                                LoginAttemptLimiter loginAttemptLimiter,
+                                UserDetailsService userDetailsService,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager) {
         this.authenticationManager = authenticationManager;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.jwtKeyRing = jwtKeyRing;
+        this.refreshTokenStore = refreshTokenStore;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.userRepository = userRepository;
+        this.roleAuthorityIndex = roleAuthorityIndex;
+        this.userService = userService;
+        this.loginAttemptLimiter = loginAttemptLimiter;
+        this.userDetailsService = userDetailsService;
+        this.eventPublisher = eventPublisher;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
     }
 
     /**
-     * Autentica un usuario y genera un token JWT.
+     * Autentica un usuario y genera un token JWT junto con un refresh token.
+     * Los intentos limitados por usuario o IP se rechazan antes de consultar la base de datos.
      */
-    public AuthenticationResponse authenticate(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(request.username(), request.password())
-        );
+    public AuthenticationResponse authenticate(LoginRequest request, String clientAddress) {
+        loginAttemptLimiter.checkAllowed(request.username(), clientAddress);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.username(), request.password())
+            );
+        } catch (BadCredentialsException e) {
+            eventPublisher.publishEvent(new LoginFailed(request.username(), clientAddress, Instant.now()));
+            Instant lockedUntil = loginAttemptLimiter.recordFailure(request.username(), clientAddress);
+            if (lockedUntil != null && isKnownUser(request.username())) {
+                userService.lockAccount(request.username(), lockedUntil);
+            }
+            throw e;
+        }
+        loginAttemptLimiter.recordSuccess(request.username());
+        CustomerUser user = (CustomerUser) authentication.getPrincipal();
+        eventPublisher.publishEvent(new LoginSucceeded(user.getId(), user.getUsername(), clientAddress, Instant.now()));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtTokenProvider.generateToken(authentication);
+        return issueTokens(user.getId(), authentication);
+    }
+
+    /**
+     * Completa un login social ya autenticado por el proveedor OAuth2: registra el acceso y emite los tokens.
+     */
+    public AuthenticationResponse completeSocialLogin(Authentication authentication, String clientAddress) {
+        SocialLoginPrincipal principal = (SocialLoginPrincipal) authentication.getPrincipal();
+        eventPublisher.publishEvent(new LoginSucceeded(principal.getUserId(), principal.getName(), clientAddress, Instant.now()));
+        return issueTokens(principal.getUserId(), authentication);
+    }
+
+    /**
+     * Rota un refresh token: lo consume y emite un nuevo par de tokens sin verificar la contraseña.
+     * El usuario se lee del primario para que una deshabilitación reciente no se pase por alto.
+     */
+    public AuthenticationResponse refresh(RefreshTokenRequest request) {
+        Long userId = refreshTokenStore.consume(request.refreshToken());
+
+        CustomerUser user = primaryTransaction.execute(status -> userRepository.findWithRolesById(userId))
+                .filter(candidate -> candidate.isEnabled() && candidate.isAccountNonLocked())
+                .orElseThrow(() -> new InvalidRefreshTokenException("Usuario no disponible"));
+
+        return issueTokens(user.getId(), new UsernamePasswordAuthenticationToken(user, null,
+                roleAuthorityIndex.authoritiesOf(user)));
+    }
+
+    /**
+     * Cierra la sesión revocando el token de acceso por su jti y, si se indica, el refresh token.
+     */
+    public void logout(String accessToken, RefreshTokenRequest request) {
+        JwtPrincipal principal = jwtTokenProvider.parseToken(accessToken);
+        if (principal.tokenId() != null) {
+            tokenRevocationRegistry.revokeToken(principal.tokenId(), principal.expiresAt());
+        }
+        if (request != null && request.refreshToken() != null) {
+            refreshTokenStore.revoke(request.refreshToken());
+        }
+    }
+
+    /**
+     * Documento JWKS con las claves públicas para que otros servicios verifiquen los tokens localmente.
+     */
+    public String getJsonWebKeySet() {
+        return jwtKeyRing.getJwksJson();
+    }
+
+    /**
+     * Indica si el usuario existe. La respuesta sale de la caché de búsquedas que acaba de llenar el
+     * propio intento de login, así que un nombre inexistente no cuesta un UPDATE sin filas.
+     */
+    private boolean isKnownUser(String username) {
+        try {
+            userDetailsService.loadUserByUsername(username);
+            return true;
+        } catch (UsernameNotFoundException e) {
+            return false;
+        }
+    }
+
+    private AuthenticationResponse issueTokens(Long userId, Authentication authentication) {
+        String jwt = jwtTokenProvider.generateToken(userId, authentication);
+        String refreshToken = refreshTokenStore.issue(userId);
 
-        return AuthenticationResponse.withToken(jwt);
+        return AuthenticationResponse.of(jwt, refreshToken, jwtTokenProvider.getExpirationSeconds());
     }
 }
@@ -0,0 +1,118 @@
+package com.prueba.login.authentication.internal.oauth2;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenDecoderFactory;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenValidator;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtDecoderFactory;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.StringUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodificadores de tokens de ID OIDC con el JWKS de cada proveedor en caché local.
+ * El JWKS se refresca en segundo plano antes de expirar y, si el proveedor no responde, se sigue
+ * usando la última copia válida durante la tolerancia configurada, de modo que una caída breve del
+ * proveedor no bloquea los logins. Reemplaza al {@link OidcIdTokenDecoderFactory} por defecto con
+ * las mismas validaciones (RS256, emisor, audiencia y vigencia).
+ */
+public class CachingIdTokenDecoderFactory implements JwtDecoderFactory<ClientRegistration>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingIdTokenDecoderFactory.class);
+
+    private final ResourceRetriever resourceRetriever;
+    private final Duration ttl;
+    private final Duration refreshTimeout;
+    private final Duration refreshAhead;
+    private final Duration outageTolerance;
+    private final Map<String, JwtDecoder> decoders = new ConcurrentHashMap<>();
+    private final Map<String, JWKSource<SecurityContext>> jwkSources = new ConcurrentHashMap<>();
+
+    public CachingIdTokenDecoderFactory(ResourceRetriever resourceRetriever,
+                                        Duration ttl,
+                                        Duration refreshTimeout,
+                                        Duration refreshAhead,
+                                        Duration outageTolerance) {
+        this.resourceRetriever = resourceRetriever;
+        this.ttl = ttl;
+        this.refreshTimeout = refreshTimeout;
+        this.refreshAhead = refreshAhead;
+        this.outageTolerance = outageTolerance;
+    }
+
+    @Override
+    public JwtDecoder createDecoder(ClientRegistration registration) {
+        return decoders.computeIfAbsent(registration.getRegistrationId(), id -> buildDecoder(registration));
+    }
+
+    private JwtDecoder buildDecoder(ClientRegistration registration) {
+        String jwkSetUri = registration.getProviderDetails().getJwkSetUri();
+        if (!StringUtils.hasText(jwkSetUri)) {
+            throw new OAuth2AuthenticationException(new OAuth2Error("missing_signature_verifier"),
+                    "El proveedor " + registration.getRegistrationId() + " no define jwk-set-uri");
+        }
+
+        JWKSource<SecurityContext> jwkSource;
+        try {
+            jwkSource = JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL(), resourceRetriever)
+                    .cache(ttl.toMillis(), refreshTimeout.toMillis())
+                    .refreshAheadCache(refreshAhead.toMillis(), true)
+                    .outageTolerant(outageTolerance.toMillis())
+                    .retrying(true)
+                    // limita las descargas ante kids desconocidos; debe ser menor que el TTL
+                    .rateLimited(Math.min(JWKSourceBuilder.DEFAULT_RATE_LIMIT_MIN_INTERVAL, ttl.toMillis() / 2))
+                    .build();
+        } catch (MalformedURLException | IllegalArgumentException e) {
+            throw new IllegalStateException("jwk-set-uri inválida: " + jwkSetUri, e);
+        }
+        jwkSources.put(registration.getRegistrationId(), jwkSource);
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // las reglas de claims las aplica el validador de Spring
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                new JwtTimestampValidator(), new OidcIdTokenValidator(registration)));
+        decoder.setClaimSetConverter(OidcIdTokenDecoderFactory.createDefaultClaimTypeConverter());
+        return decoder;
+    }
+
+    /**
+     * Detiene los refrescos programados de los JWKS.
+     */
+    @Override
+    public void close() {
+        jwkSources.values().forEach(source -> {
+            if (source instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException e) {
+                    log.debug("No se pudo cerrar la fuente JWKS", e);
+                }
+            }
+        });
+    }
+}
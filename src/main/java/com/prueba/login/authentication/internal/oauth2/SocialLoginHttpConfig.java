@@ -0,0 +1,104 @@
+package com.prueba.login.authentication.internal.oauth2;
+
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
+import org.springframework.security.oauth2.client.endpoint.RestClientAuthorizationCodeTokenResponseClient;
+import org.springframework.security.oauth2.client.http.OAuth2ErrorResponseErrorHandler;
+import org.springframework.security.oauth2.core.http.converter.OAuth2AccessTokenResponseHttpMessageConverter;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestOperations;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Cliente HTTP compartido para las llamadas a los proveedores OAuth2: intercambio del código,
+ * userinfo y JWKS. Un único {@link HttpClient} del JDK mantiene las conexiones keep-alive por host,
+ * así que los callbacks reutilizan la sesión TLS en lugar de negociarla en cada login.
+ */
+@Configuration
+@ApplicationModule
+public class SocialLoginHttpConfig {
+
+    private final JdkClientHttpRequestFactory requestFactory;
+
+    public SocialLoginHttpConfig(
+            @Value("${app.oauth2.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${app.oauth2.http.read-timeout:5s}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        this.requestFactory.setReadTimeout(readTimeout);
+    }
+
+    /**
+     * Intercambio del código de autorización por el token de acceso.
+     */
+    @Bean
+    public OAuth2AccessTokenResponseClient<OAuth2AuthorizationCodeGrantRequest> authorizationCodeTokenResponseClient() {
+        RestClientAuthorizationCodeTokenResponseClient client = new RestClientAuthorizationCodeTokenResponseClient();
+        client.setRestClient(RestClient.builder()
+                .requestFactory(requestFactory)
+                .messageConverters(converters -> {
+                    converters.clear();
+                    converters.add(new FormHttpMessageConverter());
+                    converters.add(new OAuth2AccessTokenResponseHttpMessageConverter());
+                })
+                .defaultStatusHandler(new OAuth2ErrorResponseErrorHandler())
+                .build());
+        return client;
+    }
+
+    /**
+     * Llamadas al endpoint userinfo de los proveedores.
+     */
+    @Bean
+    public RestOperations socialLoginRestOperations() {
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.setErrorHandler(new OAuth2ErrorResponseErrorHandler());
+        return restTemplate;
+    }
+
+    /**
+     * Decodificador de tokens de ID con el JWKS de cada proveedor en caché; lo usa el login OIDC.
+     */
+    @Bean(destroyMethod = "close")
+    public CachingIdTokenDecoderFactory idTokenDecoderFactory(
+            @Value("${app.oauth2.jwks.ttl:1h}") Duration ttl,
+            @Value("${app.oauth2.jwks.refresh-timeout:5s}") Duration refreshTimeout,
+            @Value("${app.oauth2.jwks.refresh-ahead:5m}") Duration refreshAhead,
+            @Value("${app.oauth2.jwks.outage-tolerance:6h}") Duration outageTolerance) {
+        return new CachingIdTokenDecoderFactory(jwksRetriever(), ttl, refreshTimeout, refreshAhead, outageTolerance);
+    }
+
+    private ResourceRetriever jwksRetriever() {
+        RestClient restClient = RestClient.builder().requestFactory(requestFactory).build();
+        return url -> {
+            try {
+                ResponseEntity<String> response = restClient.get()
+                        .uri(url.toURI())
+                        .retrieve()
+                        .toEntity(String.class);
+                return new Resource(response.getBody(), response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+            } catch (RestClientException | URISyntaxException e) {
+                throw new IOException("No se pudo obtener el JWKS de " + url, e);
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.prueba.login.authentication.internal.oauth2;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Principal de un login social ya vinculado a su usuario local.
+ * El nombre y las autoridades son los del usuario local, de modo que el JWT emitido es idéntico
+ * al de un login con contraseña. El token de ID solo existe cuando el proveedor es OIDC.
+ */
+public final class SocialLoginPrincipal implements OidcUser {
+
+    private final Long userId;
+    private final String username;
+    private final Collection<? extends GrantedAuthority> authorities;
+    private final Map<String, Object> attributes;
+    private final OidcIdToken idToken;
+    private final OidcUserInfo userInfo;
+
+    public SocialLoginPrincipal(Long userId,
+                                String username,
+                                Collection<? extends GrantedAuthority> authorities,
+                                Map<String, Object> attributes,
+                                OidcIdToken idToken,
+                                OidcUserInfo userInfo) {
+        this.userId = userId;
+        this.username = username;
+        this.authorities = authorities;
+        this.attributes = attributes;
+        this.idToken = idToken;
+        this.userInfo = userInfo;
+    }
+
+    /**
+     * ID del usuario local.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public Map<String, Object> getClaims() {
+        return idToken != null ? idToken.getClaims() : attributes;
+    }
+
+    @Override
+    public OidcUserInfo getUserInfo() {
+        return userInfo;
+    }
+
+    @Override
+    public OidcIdToken getIdToken() {
+        return idToken;
+    }
+}
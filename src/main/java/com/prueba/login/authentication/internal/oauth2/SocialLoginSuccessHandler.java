@@ -0,0 +1,49 @@
+package com.prueba.login.authentication.internal.oauth2;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prueba.login.authentication.api.dto.response.AuthenticationResponse;
+import com.prueba.login.authentication.application.AuthenticationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Completa el login social emitiendo nuestro JWT y refresh token, igual que el login con contraseña.
+ * La sesión solo era necesaria para el intercambio de autorización y se invalida.
+ */
+@Component
+@ApplicationModule
+public class SocialLoginSuccessHandler implements AuthenticationSuccessHandler {
+
+    private final AuthenticationService authenticationService;
+    private final ObjectMapper objectMapper;
+
+    public SocialLoginSuccessHandler(AuthenticationService authenticationService, ObjectMapper objectMapper) {
+        this.authenticationService = authenticationService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
+                                        Authentication authentication) throws IOException {
+        AuthenticationResponse tokens = authenticationService.completeSocialLogin(authentication, request.getRemoteAddr());
+
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        objectMapper.writeValue(response.getOutputStream(), tokens);
+    }
+}
@@ -0,0 +1,100 @@
+package com.prueba.login.authentication.internal.oauth2;
+
+import com.prueba.login.user.application.SocialAccountService;
+import com.prueba.login.user.internal.authority.RoleAuthorityIndex;
+import com.prueba.login.user.internal.exceptions.BadRequestException;
+import com.prueba.login.user.internal.model.AuthProvider;
+import com.prueba.login.user.internal.model.CustomerUser;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestOperations;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Carga el usuario del proveedor OAuth2 (u OIDC) y lo vincula con su usuario local,
+ * creándolo en el primer login.
+ */
+@Component
+@ApplicationModule
+public class SocialLoginUserService implements OAuth2UserService<OAuth2UserRequest, OAuth2User> {
+
+    private final SocialAccountService socialAccountService;
+    private final RoleAuthorityIndex roleAuthorityIndex;
+    private final DefaultOAuth2UserService oauth2Delegate = new DefaultOAuth2UserService();
+    private final OidcUserService oidcDelegate = new OidcUserService();
+
+    public SocialLoginUserService(SocialAccountService socialAccountService,
+                                  RoleAuthorityIndex roleAuthorityIndex,
+                                  RestOperations socialLoginRestOperations) {
+        this.socialAccountService = socialAccountService;
+        this.roleAuthorityIndex = roleAuthorityIndex;
+        this.oauth2Delegate.setRestOperations(socialLoginRestOperations);
+        this.oidcDelegate.setOauth2UserService(oauth2Delegate);
+    }
+
+    @Override
+    public OAuth2User loadUser(OAuth2UserRequest request) {
+        OAuth2User oauth2User = oauth2Delegate.loadUser(request);
+        String nameAttribute = request.getClientRegistration().getProviderDetails()
+                .getUserInfoEndpoint().getUserNameAttributeName();
+        Object providerId = oauth2User.getAttributes().get(nameAttribute);
+        if (providerId == null) {
+            throw new OAuth2AuthenticationException(new OAuth2Error("invalid_user_info_response"),
+                    "El proveedor no devolvió el identificador del usuario");
+        }
+
+        return link(request.getClientRegistration(), providerId.toString(), oauth2User.getAttribute("email"),
+                oauth2User.getAttributes(), null, null);
+    }
+
+    /**
+     * Variante para proveedores OIDC: el identificador es el "sub" del token de ID.
+     */
+    public OAuth2UserService<OidcUserRequest, OidcUser> oidc() {
+        return request -> {
+            OidcUser oidcUser = oidcDelegate.loadUser(request);
+            return link(request.getClientRegistration(), oidcUser.getSubject(), oidcUser.getEmail(),
+                    oidcUser.getAttributes(), oidcUser.getIdToken(), oidcUser.getUserInfo());
+        };
+    }
+
+    private SocialLoginPrincipal link(ClientRegistration registration, String providerId, String email,
+                                      Map<String, Object> attributes, OidcIdToken idToken, OidcUserInfo userInfo) {
+        CustomerUser user;
+        try {
+            user = socialAccountService.resolve(providerOf(registration), providerId, email);
+        } catch (BadRequestException e) {
+            throw new OAuth2AuthenticationException(new OAuth2Error("account_conflict"), e.getMessage(), e);
+        }
+
+        if (!user.isEnabled() || !user.isAccountNonLocked()) {
+            throw new OAuth2AuthenticationException(new OAuth2Error("account_disabled"),
+                    "La cuenta está deshabilitada o bloqueada");
+        }
+        return new SocialLoginPrincipal(user.getId(), user.getUsername(), roleAuthorityIndex.authoritiesOf(user),
+                attributes, idToken, userInfo);
+    }
+
+    private static AuthProvider providerOf(ClientRegistration registration) {
+        try {
+            return AuthProvider.valueOf(registration.getRegistrationId().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new OAuth2AuthenticationException(new OAuth2Error("unsupported_provider"),
+                    "Proveedor no soportado: " + registration.getRegistrationId());
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.prueba.login.authentication.internal.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder que ejecuta el hashing en un pool de hilos dedicado y acotado.
+ * Si la cola está llena rechaza de inmediato con {@link PasswordHashingRejectedException} (503),
+ * de modo que una ráfaga de logins no agote los hilos del servidor.
+ * <p>
+ * Los procesos por lotes usan un pool propio ({@link #throttled}) que comparte el algoritmo pero
+ * no la cola: en lugar de rechazar, bloquea al llamante hasta que haya un hilo libre, y así no
+ * compite con los logins por los hilos del pool principal. Para repartir varios hashes entre los
+ * hilos del pool se envían a {@link #executor()}; desde esos hilos el hashing no se vuelve a encolar.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final HashingThreadFactory threadFactory;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeWait;
+    private final Timer encodeDuration;
+    private final Timer matchesWait;
+    private final Timer matchesDuration;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+        this(delegate, "password-hashing", threads, queueCapacity, new ThreadPoolExecutor.AbortPolicy(),
+                meterRegistry);
+    }
+
+    private BoundedPasswordEncoder(PasswordEncoder delegate, String poolName, int threads, int queueCapacity,
+                                   RejectedExecutionHandler rejectionHandler, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.threadFactory = new HashingThreadFactory(poolName);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, rejectionHandler);
+        this.encodeWait = waitTimer(meterRegistry, poolName, "encode");
+        this.encodeDuration = durationTimer(meterRegistry, poolName, "encode");
+        this.matchesWait = waitTimer(meterRegistry, poolName, "matches");
+        this.matchesDuration = durationTimer(meterRegistry, poolName, "matches");
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Operaciones de hashing rechazadas por saturación del pool")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, poolName, List.of());
+    }
+
+    /**
+     * Crea un encoder con el mismo algoritmo y un pool propio de {@code threads} hilos que bloquea
+     * al llamante cuando está ocupado, para procesos por lotes como la importación de usuarios.
+     */
+    public BoundedPasswordEncoder throttled(String poolName, int threads, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(delegate, poolName, threads, threads, BoundedPasswordEncoder::awaitCapacity,
+                meterRegistry);
+    }
+
+    /**
+     * Pool de hashing de este encoder, con su misma política de cola llena (rechazar o esperar).
+     */
+    public Executor executor() {
+        return executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeWait, encodeDuration);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesWait, matchesDuration);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Detiene el pool de hashing al cerrar el contexto.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task, Timer waitTimer, Timer durationTimer) {
+        long submittedAt = System.nanoTime();
+        Callable<T> timedTask = () -> {
+            long startedAt = System.nanoTime();
+            waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            try {
+                return task.call();
+            } finally {
+                durationTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        };
+
+        Future<T> future;
+        if (Thread.currentThread() instanceof HashingThread thread && thread.factory == threadFactory) {
+            // ya en un hilo del pool: encolar y esperar podría bloquear todos sus hilos
+            FutureTask<T> inline = new FutureTask<>(timedTask);
+            inline.run();
+            future = inline;
+        } else {
+            try {
+                future = executor.submit(timedTask);
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw new PasswordHashingRejectedException(
+                        "Servicio de autenticación saturado, intente nuevamente", e);
+            }
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Hashing de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error al procesar la contraseña", cause);
+        }
+    }
+
+    /**
+     * Espera a que la cola tenga sitio en lugar de rechazar la tarea.
+     */
+    private static void awaitCapacity(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Pool de hashing detenido");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Espera de hashing interrumpida", e);
+        }
+    }
+
+    private static Timer waitTimer(MeterRegistry meterRegistry, String pool, String operation) {
+        return Timer.builder("password.hash.queue.wait")
+                .description("Tiempo de espera en cola antes de iniciar el hashing")
+                .tag("pool", pool)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static Timer durationTimer(MeterRegistry meterRegistry, String pool, String operation) {
+        return Timer.builder("password.hash.duration")
+                .description("Tiempo de CPU dedicado al hashing de la contraseña")
+                .tag("pool", pool)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Crea hilos daemon con nombre identificable para el pool de hashing.
+     */
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        private HashingThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new HashingThread(this, runnable, prefix + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Hilo de un pool de hashing, identificable por la factoría que lo creó.
+     */
+    private static final class HashingThread extends Thread {
+
+        private final HashingThreadFactory factory;
+
+        private HashingThread(HashingThreadFactory factory, Runnable runnable, String name) {
+            super(runnable, name);
+            this.factory = factory;
+        }
+    }
+}
@@ -1,56 +1,117 @@
 package com.prueba.login.authentication.internal.security;
 
+import com.prueba.login.authentication.internal.token.TokenRevocationRegistry;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.modulith.ApplicationModule;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Filtro de autenticación JWT que intercepta las peticiones HTTP.
+ * Publica jwt.filter etiquetado con el resultado (anonymous, cached, verified, rejected, revoked, error).
+ * No es un bean: solo lo instancia la cadena de la API en SecurityConfig, porque como bean Spring Boot
+ * lo registraría además como filtro de servlet y se ejecutaría dos veces por petición.
  */
-@Component
-@ApplicationModule
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
+    private final Map<FilterResult, Timer> timers = new EnumMap<>(FilterResult.class);
+    private final RateLimitedLog failureLog =
+            new RateLimitedLog(LoggerFactory.getLogger(JwtAuthenticationFilter.class), Duration.ofMinutes(1));
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
+                                   VerifiedTokenCache verifiedTokenCache,
+                                   TokenRevocationRegistry tokenRevocationRegistry,
+                                   MeterRegistry meterRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        for (FilterResult result : FilterResult.values()) {
+            timers.put(result, Timer.builder("jwt.filter")
+                    .description("Tiempo del filtro JWT por petición, por resultado")
+                    .tag("result", result.tag)
+                    .register(meterRegistry));
+        }
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                     HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        FilterResult result = FilterResult.ANONYMOUS;
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
-
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (StringUtils.hasText(jwt)) {
+                result = authenticate(jwt, request);
             }
         } catch (Exception ex) {
-            logger.error("No se pudo establecer la autenticación del usuario", ex);
+            result = FilterResult.ERROR;
+            failureLog.warn("No se pudo establecer la autenticación del usuario", ex);
         }
+        timers.get(result).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Las respuestas en streaming se completan en un despacho ASYNC que también debe autenticarse.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    /**
+     * Obtiene el principal del token, consultando primero la caché de tokens verificados, y lo
+     * establece en el contexto de seguridad. La revocación se comprueba siempre, también para los
+     * tokens servidos desde la caché. Los tokens inválidos solo se cuentan, no se registran en el log.
+     */
+    private FilterResult authenticate(String jwt, HttpServletRequest request) {
+        FilterResult result = FilterResult.CACHED;
+        JwtPrincipal principal = verifiedTokenCache.get(jwt);
+        if (principal == null) {
+            try {
+                principal = jwtTokenProvider.parseToken(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
+                return FilterResult.REJECTED;
+            }
+            verifiedTokenCache.put(jwt, principal);
+            result = FilterResult.VERIFIED;
+        }
+
+        if (tokenRevocationRegistry.isRevoked(principal)) {
+            return FilterResult.REVOKED;
+        }
+
+        UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken(principal.subject(), null, principal.authorities());
+        authentication.setDetails(authenticationDetailsSource.buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return result;
+    }
+
     /**
      * Extrae el token JWT del header Authorization.
      */
@@ -61,4 +122,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    /**
+     * Resultado del filtro para una petición.
+     */
+    private enum FilterResult {
+        ANONYMOUS,
+        CACHED,
+        VERIFIED,
+        REJECTED,
+        REVOKED,
+        ERROR;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
 }
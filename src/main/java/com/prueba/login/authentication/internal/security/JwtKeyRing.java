@@ -0,0 +1,278 @@
+package com.prueba.login.authentication.internal.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Anillo de claves de firma JWT.
+ * Con HS512 (por defecto) usa el secreto compartido app.jwt.secret. Con RS256, ES256 o EdDSA firma con
+ * el par de claves PEM configurado y publica la pública en el JWKS; todas las instancias deben
+ * compartir ese par. Para rotarlo se despliega el par nuevo y la pública anterior en
+ * app.jwt.signing.previous-public-keys: esas claves solo verifican y se publican en el JWKS, y se
+ * retiran de la configuración cuando caducan los tokens firmados con ellas.
+ * <p>
+ * Solo con app.jwt.signing.generate-keys=true, pensado para una única instancia o desarrollo, las
+ * claves se generan en memoria y rotan periódicamente: la siguiente clave se publica un intervalo antes
+ * de usarse y la retirada se conserva mientras haya tokens vigentes. Esas claves no sobreviven a un
+ * reinicio ni se comparten entre nodos.
+ */
+@Component
+@ApplicationModule
+public class JwtKeyRing {
+
+    public static final String HS512 = "HS512";
+    public static final String RS256 = "RS256";
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String HMAC_KID = "hmac";
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private final String algorithm;
+    private final boolean rotating;
+    private final Duration retention;
+
+    private volatile State state;
+
+    public JwtKeyRing(
+            @Value("${app.jwt.signing.algorithm:HS512}") String algorithm,
+            @Value("${app.jwt.secret:}") String secret,
+            @Value("${app.jwt.signing.private-key:}") String privateKeyPem,
+            @Value("${app.jwt.signing.public-key:}") String publicKeyPem,
+            @Value("${app.jwt.signing.previous-public-keys:}") List<String> previousPublicKeyPems,
+            @Value("${app.jwt.signing.generate-keys:false}") boolean generateKeys,
+            @Value("${app.jwt.expiration:900000}") long accessTokenTtlMs) {
+        this.algorithm = normalize(algorithm);
+        this.retention = Duration.ofMillis(accessTokenTtlMs).plus(CLOCK_SKEW);
+
+        if (HS512.equals(this.algorithm)) {
+            if (!StringUtils.hasText(secret)) {
+                throw new IllegalStateException("app.jwt.secret es requerido para firmar con HS512");
+            }
+            this.rotating = false;
+            this.state = State.of(hmacKey(secret), null, List.of());
+        } else if (StringUtils.hasText(privateKeyPem)) {
+            if (!StringUtils.hasText(publicKeyPem)) {
+                throw new IllegalStateException("app.jwt.signing.public-key es requerido junto a la clave privada");
+            }
+            this.rotating = false;
+            List<RetiredKey> previous = previousPublicKeyPems.stream()
+                    .filter(StringUtils::hasText)
+                    .map(pem -> new RetiredKey(loadPublicKey(pem), Instant.MAX))
+                    .toList();
+            this.state = State.of(loadKey(privateKeyPem, publicKeyPem), null, previous);
+        } else if (generateKeys) {
+            log.warn("Claves JWT {} generadas en memoria: los tokens no sobreviven a un reinicio "
+                    + "ni se validan en otras instancias", this.algorithm);
+            this.rotating = true;
+            this.state = State.of(generateKey(), generateKey(), List.of());
+        } else {
+            throw new IllegalStateException("app.jwt.signing.private-key y public-key son requeridas para firmar con "
+                    + this.algorithm + " (o app.jwt.signing.generate-keys=true para claves en memoria)");
+        }
+        log.info("Firma JWT con {} (kid actual: {}, rotación {})",
+                this.algorithm, state.current().kid(), rotating ? "activa" : "desactivada");
+    }
+
+    /**
+     * Algoritmo de firma configurado.
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Clave con la que se firman los tokens nuevos.
+     */
+    JwtSigningKey current() {
+        return state.current();
+    }
+
+    /**
+     * Clave de verificación para el kid de la cabecera. Los tokens sin kid solo se aceptan con HS512.
+     *
+     * @throws SignatureException si el kid no corresponde a ninguna clave vigente
+     */
+    Key verificationKey(String kid) {
+        Key key = state.verificationKeys().get(kid != null ? kid : HMAC_KID);
+        if (key == null) {
+            throw new SignatureException("Clave de firma desconocida: " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Documento JWKS con las claves públicas vigentes, precalculado en cada rotación.
+     */
+    public String getJwksJson() {
+        return state.jwksJson();
+    }
+
+    /**
+     * Rota las claves generadas: la siguiente pasa a firmar y la actual queda solo para verificación.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.signing.rotation-interval:7d}",
+            initialDelayString = "${app.jwt.signing.rotation-interval:7d}")
+    public void rotate() {
+        if (!rotating) {
+            return;
+        }
+
+        State previous = state;
+        Instant now = Instant.now();
+        List<RetiredKey> retired = new ArrayList<>();
+        for (RetiredKey key : previous.retired()) {
+            if (key.verifiableUntil().isAfter(now)) {
+                retired.add(key);
+            }
+        }
+        retired.add(new RetiredKey(previous.current(), now.plus(retention)));
+
+        state = State.of(previous.next(), generateKey(), retired);
+        log.info("Claves JWT rotadas: kid actual {}, siguiente {}", state.current().kid(), state.next().kid());
+    }
+
+    private JwtSigningKey generateKey() {
+        KeyPair keyPair = switch (algorithm) {
+            case RS256 -> Jwts.SIG.RS256.keyPair().build();
+            case ES256 -> Jwts.SIG.ES256.keyPair().build();
+            default -> Jwks.CRV.Ed25519.keyPair().build();
+        };
+        return asymmetricKey(keyPair.getPrivate(), keyPair.getPublic());
+    }
+
+    private JwtSigningKey loadKey(String privateKeyPem, String publicKeyPem) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(keyFamily());
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decodePem(privateKeyPem)));
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decodePem(publicKeyPem)));
+            return asymmetricKey(privateKey, publicKey);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("No se pudo cargar la clave de firma " + algorithm, e);
+        }
+    }
+
+    /**
+     * Clave pública de un par anterior: verifica los tokens que firmó, pero no firma.
+     */
+    private JwtSigningKey loadPublicKey(String publicKeyPem) {
+        try {
+            PublicKey publicKey = KeyFactory.getInstance(keyFamily())
+                    .generatePublic(new X509EncodedKeySpec(decodePem(publicKeyPem)));
+            return asymmetricKey(null, publicKey);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("No se pudo cargar la clave pública anterior " + algorithm, e);
+        }
+    }
+
+    private String keyFamily() {
+        return switch (algorithm) {
+            case RS256 -> "RSA";
+            case ES256 -> "EC";
+            default -> "Ed25519";
+        };
+    }
+
+    private JwtSigningKey asymmetricKey(PrivateKey privateKey, PublicKey publicKey) {
+        PublicJwk<?> jwk = Jwks.builder()
+                .key(publicKey)
+                .algorithm(algorithm)
+                .publicKeyUse("sig")
+                .idFromThumbprint()
+                .build();
+        return new JwtSigningKey(jwk.getId(), signatureAlgorithm(), privateKey, publicKey, jwk);
+    }
+
+    private SecureDigestAlgorithm<?, ?> signatureAlgorithm() {
+        return switch (algorithm) {
+            case RS256 -> Jwts.SIG.RS256;
+            case ES256 -> Jwts.SIG.ES256;
+            default -> Jwts.SIG.EdDSA;
+        };
+    }
+
+    private static JwtSigningKey hmacKey(String secret) {
+        Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return new JwtSigningKey(HMAC_KID, Jwts.SIG.HS512, key, key, null);
+    }
+
+    private static String normalize(String algorithm) {
+        return switch (algorithm.trim().toUpperCase(Locale.ROOT)) {
+            case HS512 -> HS512;
+            case RS256 -> RS256;
+            case ES256 -> ES256;
+            case "EDDSA", "ED25519" -> EDDSA;
+            default -> throw new IllegalStateException("Algoritmo de firma JWT no soportado: " + algorithm);
+        };
+    }
+
+    private static byte[] decodePem(String pem) {
+        String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    private record RetiredKey(JwtSigningKey key, Instant verifiableUntil) {
+    }
+
+    /**
+     * Estado inmutable del anillo; se reemplaza completo en cada rotación.
+     */
+    private record State(
+            JwtSigningKey current,
+            JwtSigningKey next,
+            List<RetiredKey> retired,
+            Map<String, Key> verificationKeys,
+            String jwksJson
+    ) {
+
+        static State of(JwtSigningKey current, JwtSigningKey next, List<RetiredKey> retired) {
+            List<JwtSigningKey> keys = new ArrayList<>();
+            keys.add(current);
+            if (next != null) {
+                keys.add(next);
+            }
+            retired.forEach(key -> keys.add(key.key()));
+
+            Map<String, Key> verificationKeys = new HashMap<>();
+            keys.forEach(key -> verificationKeys.put(key.kid(), key.verificationKey()));
+
+            String jwksJson = keys.stream()
+                    .filter(key -> key.jwk() != null)
+                    .map(key -> Jwks.json(key.jwk()))
+                    .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+
+            return new State(current, next, List.copyOf(retired), Map.copyOf(verificationKeys), jwksJson);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.prueba.login.authentication.internal.security;
+
+import com.prueba.login.user.internal.authority.Authorities;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Datos inmutables de un token JWT ya validado.
+ */
+public record JwtPrincipal(
+        String tokenId,
+        String subject,
+        Long userId,
+        String roles,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+
+    /**
+     * Autoridades codificadas en el claim "roles", resueltas sobre instancias compartidas.
+     */
+    public Set<GrantedAuthority> authorities() {
+        return Authorities.fromClaim(roles);
+    }
+
+    /**
+     * Indica si el token ya expiró en el instante dado.
+     */
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
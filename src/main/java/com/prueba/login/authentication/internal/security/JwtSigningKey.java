@@ -0,0 +1,30 @@
+package com.prueba.login.authentication.internal.security;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+
+import java.security.Key;
+
+/**
+ * Clave del anillo de claves JWT, identificada por el kid que viaja en la cabecera del token.
+ * jwk es la representación pública publicada en el JWKS; es null para claves simétricas.
+ */
+record JwtSigningKey(
+        String kid,
+        SecureDigestAlgorithm<?, ?> algorithm,
+        Key signingKey,
+        Key verificationKey,
+        PublicJwk<?> jwk
+) {
+
+    /**
+     * Firma el token con esta clave, anotando su kid en la cabecera.
+     */
+    @SuppressWarnings("unchecked")
+    String sign(JwtBuilder builder) {
+        return builder.header().keyId(kid).and()
+                .signWith(signingKey, (SecureDigestAlgorithm<Key, ?>) algorithm)
+                .compact();
+    }
+}
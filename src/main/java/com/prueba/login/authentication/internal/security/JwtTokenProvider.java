@@ -1,67 +1,133 @@
 package com.prueba.login.authentication.internal.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.modulith.ApplicationModule;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * Proveedor de tokens JWT para autenticación.
+ * Firma con la clave actual del {@link JwtKeyRing} y verifica con la clave indicada por el kid del token.
+ * Publica jwt.sign y jwt.verify; este último etiquetado con el resultado, de modo que su conteo
+ * sirve como contador de tokens válidos, expirados, malformados y con firma inválida.
  */
 @Component
 @ApplicationModule
 public class JwtTokenProvider {
 
-    private final SecretKey secretKey;
+    private static final String USER_ID_CLAIM = "uid";
+
+    private final JwtKeyRing keyRing;
+    private final JwtParser jwtParser;
     private final long jwtExpirationMs;
+    private final Timer signTimer;
+    private final Map<VerificationOutcome, Timer> verifyTimers = new EnumMap<>(VerificationOutcome.class);
 
     public JwtTokenProvider(
-            @Value("${app.jwt.secret}") String jwtSecret,
-            @Value("${app.jwt.expiration:86400000}") long jwtExpirationMs) {
-        this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+            JwtKeyRing keyRing,
+            @Value("${app.jwt.expiration:900000}") long jwtExpirationMs,
+            MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return keyRing.verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
         this.jwtExpirationMs = jwtExpirationMs;
+        this.signTimer = Timer.builder("jwt.sign")
+                .description("Tiempo de construcción y firma de un token de acceso")
+                .tag("algorithm", keyRing.getAlgorithm())
+                .register(meterRegistry);
+        for (VerificationOutcome outcome : VerificationOutcome.values()) {
+            verifyTimers.put(outcome, Timer.builder("jwt.verify")
+                    .description("Tiempo de parseo y verificación de firma de un token, por resultado")
+                    .tag("outcome", outcome.tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Tiempo de vida de los tokens de acceso en segundos.
+     */
+    public long getExpirationSeconds() {
+        return jwtExpirationMs / 1000;
     }
 
     /**
      * Genera un token JWT para un usuario autenticado.
      */
     public String generateToken(Authentication authentication) {
+        return generateToken(null, authentication);
+    }
+
+    /**
+     * Genera un token JWT que además lleva el ID del usuario (claim "uid"), con el que se
+     * comprueban las revocaciones por usuario aunque cambie su nombre.
+     */
+    public String generateToken(Long userId, Authentication authentication) {
         String username = authentication.getName();
         String authorities = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
 
+        long start = System.nanoTime();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
-        return Jwts.builder()
-                .subject(username)
-                .claim("roles", authorities)
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(secretKey, Jwts.SIG.HS512)
-                .compact();
+        try {
+            return keyRing.current().sign(Jwts.builder()
+                    .id(UUID.randomUUID().toString())
+                    .subject(username)
+                    .claim(USER_ID_CLAIM, userId)
+                    .claim("roles", authorities)
+                    .issuedAt(now)
+                    .expiration(expiryDate));
+        } finally {
+            signTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Valida el token JWT y obtiene sus datos con un único parseo.
+     *
+     * @throws JwtException si el token es inválido, está expirado o su firma no coincide
+     */
+    public JwtPrincipal parseToken(String token) {
+        Claims claims = verify(token);
+
+        return new JwtPrincipal(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                claims.get("roles", String.class),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration())
+        );
     }
 
     /**
      * Obtiene el nombre de usuario del token JWT.
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
+        return verify(token).getSubject();
     }
 
     /**
@@ -69,13 +135,47 @@ public class JwtTokenProvider {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token);
+            verify(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
+
+    /**
+     * Parsea y verifica el token registrando la duración bajo el resultado obtenido.
+     */
+    private Claims verify(String token) {
+        long start = System.nanoTime();
+        VerificationOutcome outcome = VerificationOutcome.MALFORMED;
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            outcome = VerificationOutcome.VALID;
+            return claims;
+        } catch (ExpiredJwtException e) {
+            outcome = VerificationOutcome.EXPIRED;
+            throw e;
+        } catch (SignatureException e) {
+            outcome = VerificationOutcome.BAD_SIGNATURE;
+            throw e;
+        } finally {
+            verifyTimers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
+    /**
+     * Resultado de verificar un token; cualquier fallo que no sea expiración o firma cuenta como malformado.
+     */
+    private enum VerificationOutcome {
+        VALID,
+        EXPIRED,
+        MALFORMED,
+        BAD_SIGNATURE;
+
+        private final String tag = name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
 }
@@ -0,0 +1,138 @@
+package com.prueba.login.authentication.internal.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de intentos de login por nombre de usuario y por IP.
+ * Se consulta antes de AuthenticationManager.authenticate, por lo que un intento rechazado no
+ * cuesta ni consulta a base de datos ni comparación de hash. Los contadores viven en cachés
+ * acotadas que descartan las claves inactivas.
+ * <ul>
+ *   <li>IP: máximo de intentos fallidos por ventana; los logins correctos no cuentan, de modo que
+ *   los usuarios legítimos tras un mismo NAT o proxy no se bloquean entre sí.</li>
+ *   <li>Usuario: tras backoff-threshold fallos, espera exponencial entre intentos; al llegar a
+ *   lockout-threshold fallos la cuenta se bloquea durante lockout-duration.</li>
+ * </ul>
+ */
+@Component
+@ApplicationModule
+public class LoginAttemptLimiter {
+
+    private final Cache<String, UserAttempts> users;
+    private final Cache<String, SlidingWindowCounter> addresses;
+    private final long windowMillis;
+    private final int maxAttemptsPerAddress;
+    private final int backoffThreshold;
+    private final int lockoutThreshold;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration lockoutDuration;
+
+    public LoginAttemptLimiter(
+            @Value("${app.security.login.window:5m}") Duration window,
+            @Value("${app.security.login.ip.max-attempts:100}") int maxAttemptsPerAddress,
+            @Value("${app.security.login.username.backoff-threshold:5}") int backoffThreshold,
+            @Value("${app.security.login.username.lockout-threshold:20}") int lockoutThreshold,
+            @Value("${app.security.login.username.backoff-base:1s}") Duration backoffBase,
+            @Value("${app.security.login.username.backoff-max:5m}") Duration backoffMax,
+            @Value("${app.security.login.username.lockout-duration:15m}") Duration lockoutDuration,
+            @Value("${app.security.login.max-keys:100000}") long maxKeys) {
+        this.windowMillis = window.toMillis();
+        this.maxAttemptsPerAddress = maxAttemptsPerAddress;
+        this.backoffThreshold = backoffThreshold;
+        this.lockoutThreshold = lockoutThreshold;
+        this.backoffBase = backoffBase;
+        this.backoffMax = backoffMax;
+        this.lockoutDuration = lockoutDuration;
+
+        Duration idle = window.multipliedBy(2);
+        Duration userIdle = idle.compareTo(lockoutDuration) > 0 ? idle : lockoutDuration;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(userIdle)
+                .build();
+        this.addresses = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idle)
+                .build();
+    }
+
+    /**
+     * Rechaza el intento si la IP agotó su cuota de fallos o el usuario está en espera.
+     *
+     * @throws LoginThrottledException si el intento debe rechazarse
+     */
+    public void checkAllowed(String username, String clientAddress) {
+        long now = System.currentTimeMillis();
+
+        if (clientAddress != null) {
+            SlidingWindowCounter counter = addresses.getIfPresent(clientAddress);
+            if (counter != null && counter.estimate(now, windowMillis) >= maxAttemptsPerAddress) {
+                throw new LoginThrottledException("Demasiados intentos de login desde esta dirección",
+                        Duration.ofMillis(windowMillis - now % windowMillis));
+            }
+        }
+
+        UserAttempts attempts = users.getIfPresent(normalize(username));
+        if (attempts != null) {
+            long blockedUntil = attempts.blockedUntil.get();
+            if (blockedUntil > now) {
+                throw new LoginThrottledException("Demasiados intentos fallidos, intente más tarde",
+                        Duration.ofMillis(blockedUntil - now));
+            }
+        }
+    }
+
+    /**
+     * Registra un fallo de credenciales en la cuota de la IP y aplica la espera progresiva al usuario.
+     *
+     * @return el instante hasta el que debe bloquearse la cuenta, o null si aún no corresponde
+     */
+    public Instant recordFailure(String username, String clientAddress) {
+        long now = System.currentTimeMillis();
+        if (clientAddress != null) {
+            addresses.get(clientAddress, key -> new SlidingWindowCounter()).increment(now, windowMillis);
+        }
+
+        UserAttempts attempts = users.get(normalize(username), key -> new UserAttempts());
+        double failures = attempts.failures.increment(now, windowMillis);
+
+        if (failures >= lockoutThreshold) {
+            long lockedUntil = now + lockoutDuration.toMillis();
+            attempts.blockedUntil.accumulateAndGet(lockedUntil, Math::max);
+            return Instant.ofEpochMilli(lockedUntil);
+        }
+
+        if (failures >= backoffThreshold) {
+            int exponent = (int) Math.min(failures - backoffThreshold, 30);
+            long delay = Math.min(backoffBase.toMillis() << exponent, backoffMax.toMillis());
+            attempts.blockedUntil.accumulateAndGet(now + delay, Math::max);
+        }
+        return null;
+    }
+
+    /**
+     * Un login correcto reinicia el historial de fallos del usuario.
+     */
+    public void recordSuccess(String username) {
+        users.invalidate(normalize(username));
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class UserAttempts {
+        private final SlidingWindowCounter failures = new SlidingWindowCounter();
+        private final AtomicLong blockedUntil = new AtomicLong();
+    }
+}
@@ -0,0 +1,127 @@
+package com.prueba.login.authentication.internal.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Construye el PasswordEncoder delegante con prefijos {id} (bcrypt, pbkdf2, argon2).
+ * Opcionalmente calibra el factor de trabajo del algoritmo activo para que un hash
+ * cueste aproximadamente la latencia objetivo en el hardware actual.
+ */
+public final class PasswordEncoderFactory {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+    public static final String ARGON2 = "argon2";
+
+    static final int MIN_BCRYPT_STRENGTH = 10;
+    static final int MAX_BCRYPT_STRENGTH = 16;
+    static final int DEFAULT_PBKDF2_ITERATIONS = 310_000;
+    static final int MIN_PBKDF2_ITERATIONS = 100_000;
+    static final int DEFAULT_ARGON2_ITERATIONS = 2;
+    static final int ARGON2_MEMORY_KIB = 1 << 14;
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderFactory.class);
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int CALIBRATION_SAMPLES = 3;
+
+    private PasswordEncoderFactory() {
+    }
+
+    /**
+     * Crea el encoder delegante que codifica con el algoritmo indicado y verifica con cualquiera de ellos.
+     * Los hashes sin prefijo (anteriores a este encoder) se verifican como BCrypt.
+     */
+    public static DelegatingPasswordEncoder create(String algorithm, int bcryptStrength,
+                                                   boolean calibrate, Duration targetLatency) {
+        int strength = bcryptStrength;
+        int pbkdf2Iterations = DEFAULT_PBKDF2_ITERATIONS;
+        int argon2Iterations = DEFAULT_ARGON2_ITERATIONS;
+
+        if (calibrate) {
+            switch (algorithm) {
+                case BCRYPT -> strength = calibrateBcrypt(bcryptStrength, targetLatency);
+                case PBKDF2 -> pbkdf2Iterations = calibrateLinear(PasswordEncoderFactory::pbkdf2,
+                        MIN_PBKDF2_ITERATIONS, MIN_PBKDF2_ITERATIONS, targetLatency);
+                case ARGON2 -> argon2Iterations = calibrateLinear(PasswordEncoderFactory::argon2,
+                        1, 1, targetLatency);
+                default -> throw new IllegalArgumentException("Algoritmo de contraseña no soportado: " + algorithm);
+            }
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(strength));
+        encoders.put(PBKDF2, pbkdf2(pbkdf2Iterations));
+        encoders.put(ARGON2, argon2(argon2Iterations));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Algoritmo de contraseña no soportado: " + algorithm);
+        }
+
+        log.info("PasswordEncoder activo: {} (bcrypt={}, pbkdf2={}, argon2={})",
+                algorithm, strength, pbkdf2Iterations, argon2Iterations);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return delegating;
+    }
+
+    static PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    static PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(16, 32, 1, ARGON2_MEMORY_KIB, iterations);
+    }
+
+    /**
+     * Cada incremento del costo de BCrypt duplica el tiempo: se mide el costo mínimo y se extrapola.
+     */
+    private static int calibrateBcrypt(int minStrength, Duration targetLatency) {
+        int baseline = Math.max(minStrength, MIN_BCRYPT_STRENGTH);
+        long baselineNanos = measure(new BCryptPasswordEncoder(baseline));
+        int strength = baseline;
+        long estimated = baselineNanos;
+        while (strength < MAX_BCRYPT_STRENGTH && estimated * 2 <= targetLatency.toNanos()) {
+            strength++;
+            estimated *= 2;
+        }
+        return strength;
+    }
+
+    /**
+     * PBKDF2 y Argon2 escalan linealmente con el número de iteraciones.
+     */
+    private static int calibrateLinear(IntFunction<PasswordEncoder> encoderFactory, int probeIterations,
+                                       int minIterations, Duration targetLatency) {
+        long probeNanos = Math.max(measure(encoderFactory.apply(probeIterations)), 1);
+        long iterations = probeIterations * targetLatency.toNanos() / probeNanos;
+        return (int) Math.max(minIterations, Math.min(iterations, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Mediana de varias muestras de encode, tras una ejecución de calentamiento.
+     */
+    private static long measure(PasswordEncoder encoder) {
+        encoder.encode(CALIBRATION_PASSWORD);
+        long[] samples = new long[CALIBRATION_SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+}
@@ -0,0 +1,88 @@
+package com.prueba.login.authentication.internal.security;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log que emite como máximo un mensaje por intervalo y cuenta los que omite.
+ * Un error repetido en cada petición bajo carga cuesta un contador, no una línea con traza por petición;
+ * el siguiente mensaje emitido informa cuántos se omitieron desde el anterior.
+ */
+public final class RateLimitedLog {
+
+    private final Logger logger;
+    private final long intervalNanos;
+    private final AtomicLong nextAllowedAt;
+    private final LongAdder suppressed = new LongAdder();
+
+    public RateLimitedLog(Logger logger, Duration interval) {
+        this.logger = logger;
+        this.intervalNanos = interval.toNanos();
+        this.nextAllowedAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Registra en WARN si el intervalo lo permite. Un Throwable como último argumento se registra con su traza.
+     */
+    public void warn(String format, Object... args) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        long omitted = tryAcquire();
+        if (omitted >= 0) {
+            logger.warn(withSuppressed(format, omitted), withSuppressed(args, omitted));
+        }
+    }
+
+    /**
+     * Registra en INFO si el intervalo lo permite.
+     */
+    public void info(String format, Object... args) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        long omitted = tryAcquire();
+        if (omitted >= 0) {
+            logger.info(withSuppressed(format, omitted), withSuppressed(args, omitted));
+        }
+    }
+
+    /**
+     * Devuelve los mensajes omitidos desde el último emitido, o -1 si este también debe omitirse.
+     */
+    private long tryAcquire() {
+        long now = System.nanoTime();
+        long allowedAt = nextAllowedAt.get();
+        if (now - allowedAt >= 0 && nextAllowedAt.compareAndSet(allowedAt, now + intervalNanos)) {
+            return suppressed.sumThenReset();
+        }
+        suppressed.increment();
+        return -1;
+    }
+
+    private static String withSuppressed(String format, long omitted) {
+        return omitted > 0 ? format + " ({} mensajes similares omitidos)" : format;
+    }
+
+    /**
+     * Añade el número de omitidos como argumento, antes del Throwable final si lo hay.
+     */
+    private static Object[] withSuppressed(Object[] args, long omitted) {
+        if (omitted == 0) {
+            return args;
+        }
+        boolean hasThrowable = args.length > 0 && args[args.length - 1] instanceof Throwable;
+        Object[] extended = Arrays.copyOf(args, args.length + 1);
+        if (hasThrowable) {
+            extended[args.length] = args[args.length - 1];
+            extended[args.length - 1] = omitted;
+        } else {
+            extended[args.length] = omitted;
+        }
+        return extended;
+    }
+}
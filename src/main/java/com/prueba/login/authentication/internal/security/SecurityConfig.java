@@ -1,8 +1,21 @@
 package com.prueba.login.authentication.internal.security;
 
+import com.prueba.login.authentication.internal.oauth2.SocialLoginSuccessHandler;
+import com.prueba.login.authentication.internal.oauth2.SocialLoginUserService;
+import com.prueba.login.authentication.internal.token.TokenRevocationRegistry;
+import com.prueba.login.user.application.UserLookupCache;
+import com.prueba.login.user.application.UserService;
+import com.prueba.login.user.internal.authority.RoleAuthorityIndex;
+import com.prueba.login.user.internal.model.CustomerUser;
 import com.prueba.login.user.internal.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.modulith.ApplicationModule;
@@ -14,17 +27,26 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.NullSecurityContextRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuración de seguridad del módulo Authentication.
@@ -35,30 +57,77 @@ import java.util.List;
 @ApplicationModule
 public class SecurityConfig {
 
+    private static final String USER_NOT_FOUND = "Usuario no encontrado";
+
     private final UserRepository userRepository;
     private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final UserLookupCache userLookupCache;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate primaryTransaction;
 
-    public SecurityConfig(UserRepository userRepository, JwtTokenProvider jwtTokenProvider) {
+    public SecurityConfig(UserRepository userRepository,
+                          JwtTokenProvider jwtTokenProvider,
+                          VerifiedTokenCache verifiedTokenCache,
+                          TokenRevocationRegistry tokenRevocationRegistry,
+                          UserLookupCache userLookupCache,
+                          MeterRegistry meterRegistry,
+                          PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.userLookupCache = userLookupCache;
+        this.meterRegistry = meterRegistry;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
     }
 
+    /**
+     * Carga el usuario desde la caché de búsquedas. Un usuario inexistente lanza
+     * UsernameNotFoundException, ante la cual DaoAuthenticationProvider compara igualmente contra un
+     * hash ficticio precalculado, de modo que la respuesta en caché no se distingue por tiempo.
+     * La búsqueda se publica como auth.user.lookup, separada de la comprobación de la contraseña.
+     * Los fallos de caché se cargan en una transacción de lectura-escritura, que siempre va al primario:
+     * con réplica, una lectura retrasada quedaría en caché (un hash ya cambiado o un usuario recién
+     * registrado recordado como inexistente) hasta que expire.
+     */
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByUsernameWithRolesAndPermissions(username)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado: " + username));
+        Timer found = lookupTimer("found");
+        Timer notFound = lookupTimer("not-found");
+        return username -> {
+            long start = System.nanoTime();
+            CustomerUser user = userLookupCache.getUserDetails(username, name -> primaryTransaction.execute(
+                    status -> userRepository.findByUsernameWithRoles(name).orElse(null)));
+            (user != null ? found : notFound).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (user == null) {
+                throw new UsernameNotFoundException(USER_NOT_FOUND);
+            }
+            return user;
+        };
+    }
+
+    /**
+     * Proveedor del login con usuario y contraseña. Al declararse como bean, el AuthenticationManager
+     * global que usa el login lo toma en lugar de construir un DaoAuthenticationProvider sin métricas.
+     */
+    @Bean
+    public DaoAuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                            RoleAuthorityIndex roleAuthorityIndex,
+                                                            PasswordEncoder passwordEncoder,
+                                                            UserDetailsPasswordService userDetailsPasswordService) {
+        DaoAuthenticationProvider provider = new TimedDaoAuthenticationProvider(
+                userDetailsService, roleAuthorityIndex, meterRegistry);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
+        return provider;
     }
 
     @Bean
     @Order(1)
     public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http, 
-                                                       AuthenticationManager authenticationManager,
-                                                       PasswordEncoder passwordEncoder) throws Exception {
-        
-        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setUserDetailsService(userDetailsService());
-        provider.setPasswordEncoder(passwordEncoder);
-        
+                                                       AuthenticationManager authenticationManager) throws Exception {
         http
             .securityMatcher("/api/**")
             .csrf(csrf -> csrf.disable())
@@ -67,19 +136,93 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.POST, "/api/v1/users/register").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/v1/auth/login").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/v1/auth/refresh").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/v1/users/my-profile").authenticated()
+                .requestMatchers(HttpMethod.POST, "/api/v1/users/import").hasRole("ADMIN")
                 .requestMatchers("/api/v1/users/**").hasAnyRole("ADMIN", "USER")
                 .anyRequest().authenticated()
             )
-            .authenticationProvider(provider)
-            .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider), UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider, verifiedTokenCache, tokenRevocationRegistry, meterRegistry), UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+
+    /**
+     * Login social OAuth2/OIDC. El proveedor autentica y el manejador de éxito responde con nuestro JWT;
+     * la sesión solo conserva la solicitud de autorización entre la redirección y el callback.
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain oauth2SecurityFilterChain(HttpSecurity http,
+                                                          SocialLoginUserService socialLoginUserService,
+                                                          SocialLoginSuccessHandler socialLoginSuccessHandler,
+                                                          OAuth2AccessTokenResponseClient<OAuth2AuthorizationCodeGrantRequest> accessTokenResponseClient) throws Exception {
+        http
+            .securityMatcher("/oauth2/**", "/login/oauth2/**")
+            .securityContext(context -> context.securityContextRepository(new NullSecurityContextRepository()))
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+            .oauth2Login(oauth2 -> oauth2
+                .tokenEndpoint(token -> token.accessTokenResponseClient(accessTokenResponseClient))
+                .userInfoEndpoint(userInfo -> userInfo
+                    .userService(socialLoginUserService)
+                    .oidcUserService(socialLoginUserService.oidc()))
+                .successHandler(socialLoginSuccessHandler)
+                .failureHandler((request, response, exception) ->
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, exception.getMessage()))
+            );
 
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Primary
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${app.security.password.strength:10}") int strength,
+            @Value("${app.security.password.calibration.enabled:true}") boolean calibrate,
+            @Value("${app.security.password.calibration.target-latency:100ms}") Duration targetLatency,
+            @Value("${app.security.password.executor.threads:0}") int threads,
+            @Value("${app.security.password.executor.queue-capacity:64}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        PasswordEncoder delegate = PasswordEncoderFactory.create(algorithm, strength, calibrate, targetLatency);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegate, poolSize, queueCapacity, meterRegistry);
+    }
+
+    /**
+     * Encoder de la importación masiva de usuarios: mismo algoritmo, pero con su propio pool pequeño
+     * que hace esperar a la importación en lugar de ocupar la cola de los logins.
+     */
+    @Bean
+    public BoundedPasswordEncoder importPasswordEncoder(
+            BoundedPasswordEncoder passwordEncoder,
+            @Value("${app.security.password.import-executor.threads:2}") int threads,
+            MeterRegistry meterRegistry) {
+        return passwordEncoder.throttled("password-hashing-import", threads, meterRegistry);
+    }
+
+    /**
+     * Pool de importPasswordEncoder, para que la importación reparta los hashes de un bloque entre sus hilos.
+     * Solo se inyecta por nombre: como candidato por defecto desactivaría el applicationTaskExecutor de Spring Boot.
+     */
+    @Bean(defaultCandidate = false)
+    public Executor importPasswordHashingExecutor(
+            @Qualifier("importPasswordEncoder") BoundedPasswordEncoder importPasswordEncoder) {
+        return importPasswordEncoder.executor();
+    }
+
+    /**
+     * Actualiza el hash de la contraseña tras un login exitoso cuando el hash almacenado
+     * usa un algoritmo o costo más débil que el configurado. El usuario recibido es la instancia
+     * compartida de la caché de búsquedas, así que no se modifica: upgradePassword la invalida al
+     * confirmar y el siguiente login carga el hash nuevo.
+     */
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService(UserService userService) {
+        return (user, newPassword) -> {
+            userService.upgradePassword(user.getUsername(), newPassword);
+            return user;
+        };
     }
 
     @Bean
@@ -99,4 +242,11 @@ public class SecurityConfig {
         source.registerCorsConfiguration("/**", configuration);
         return source;
     }
+
+    private Timer lookupTimer(String outcome) {
+        return Timer.builder("auth.user.lookup")
+                .description("Tiempo de búsqueda del usuario durante el login, caché incluida")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,62 @@
+package com.prueba.login.authentication.internal.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de ventana deslizante aproximada, sin bloqueos.
+ * Guarda en un único long el índice de ventana (32 bits) y los conteos de la ventana anterior
+ * y la actual (16 bits cada uno, saturados); la estimación pondera la ventana anterior por la
+ * fracción de ella que aún cae dentro de la ventana deslizante.
+ */
+final class SlidingWindowCounter {
+
+    private static final long MAX_COUNT = 0xFFFF;
+
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Registra un evento y devuelve la estimación resultante.
+     */
+    double increment(long nowMillis, long windowMillis) {
+        long window = windowIndex(nowMillis, windowMillis);
+        long current;
+        long updated;
+        do {
+            current = state.get();
+            long rolled = roll(current, window);
+            long count = Math.min(rolled & MAX_COUNT, MAX_COUNT - 1) + 1;
+            updated = (rolled & ~MAX_COUNT) | count;
+        } while (!state.compareAndSet(current, updated));
+        return estimate(updated, nowMillis, windowMillis);
+    }
+
+    /**
+     * Devuelve la estimación actual sin registrar ningún evento.
+     */
+    double estimate(long nowMillis, long windowMillis) {
+        return estimate(roll(state.get(), windowIndex(nowMillis, windowMillis)), nowMillis, windowMillis);
+    }
+
+    private static double estimate(long packed, long nowMillis, long windowMillis) {
+        long previous = (packed >>> 16) & MAX_COUNT;
+        long current = packed & MAX_COUNT;
+        double elapsed = (double) (nowMillis % windowMillis) / windowMillis;
+        return previous * (1 - elapsed) + current;
+    }
+
+    /**
+     * Desplaza el estado a la ventana indicada: la actual pasa a ser la anterior o ambas se descartan.
+     */
+    private static long roll(long packed, long window) {
+        long storedWindow = packed >>> 32;
+        if (storedWindow == window) {
+            return packed;
+        }
+        long previous = storedWindow + 1 == window ? packed & MAX_COUNT : 0;
+        return (window << 32) | (previous << 16);
+    }
+
+    private static long windowIndex(long nowMillis, long windowMillis) {
+        return (nowMillis / windowMillis) & 0xFFFFFFFFL;
+    }
+}
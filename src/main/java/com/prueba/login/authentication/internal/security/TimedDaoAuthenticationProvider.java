@@ -0,0 +1,78 @@
+package com.prueba.login.authentication.internal.security;
+
+import com.prueba.login.user.internal.authority.RoleAuthorityIndex;
+import com.prueba.login.user.internal.model.CustomerUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DaoAuthenticationProvider que mide por separado la comprobación de la contraseña (auth.password.check,
+ * por resultado), incluida la espera en el pool de hashing. La búsqueda del usuario se mide en el
+ * UserDetailsService (auth.user.lookup). Las autoridades del usuario autenticado salen del índice
+ * rol → autoridades, ya que los usuarios de la caché solo tienen cargados sus roles.
+ */
+class TimedDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final RoleAuthorityIndex roleAuthorityIndex;
+    private final Timer passwordMatch;
+    private final Timer passwordMismatch;
+    private final Timer passwordError;
+
+    TimedDaoAuthenticationProvider(UserDetailsService userDetailsService,
+                                   RoleAuthorityIndex roleAuthorityIndex,
+                                   MeterRegistry meterRegistry) {
+        super(userDetailsService);
+        this.roleAuthorityIndex = roleAuthorityIndex;
+        this.passwordMatch = passwordTimer(meterRegistry, "match");
+        this.passwordMismatch = passwordTimer(meterRegistry, "mismatch");
+        this.passwordError = passwordTimer(meterRegistry, "error");
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication) {
+        long start = System.nanoTime();
+        Timer timer = passwordError;
+        try {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+            timer = passwordMatch;
+        } catch (BadCredentialsException e) {
+            timer = passwordMismatch;
+            throw e;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * El principal sigue siendo el CustomerUser; a la clase base se le pasa una vista con las
+     * autoridades del índice, que es de donde construye el token autenticado.
+     */
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        if (user instanceof CustomerUser customerUser) {
+            user = User.withUsername(customerUser.getUsername())
+                    .password(customerUser.getPassword())
+                    .authorities(roleAuthorityIndex.authoritiesOf(customerUser))
+                    .build();
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+
+    private static Timer passwordTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.password.check")
+                .description("Tiempo de verificación de la contraseña durante el login")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
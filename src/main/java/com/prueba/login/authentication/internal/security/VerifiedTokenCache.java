@@ -0,0 +1,101 @@
+package com.prueba.login.authentication.internal.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché acotada de tokens JWT ya verificados.
+ * Las entradas se indexan por el SHA-256 del token y expiran como máximo en el "exp" del token.
+ */
+@Component
+@ApplicationModule
+public class VerifiedTokenCache {
+
+    private final Cache<TokenDigest, JwtPrincipal> cache;
+
+    public VerifiedTokenCache(
+            @Value("${app.jwt.cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    /**
+     * Obtiene el principal previamente verificado para el token, o null si no está en caché.
+     */
+    public JwtPrincipal get(String token) {
+        JwtPrincipal cached = cache.getIfPresent(TokenDigest.of(token));
+        if (cached == null || cached.isExpired(Instant.now())) {
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Registra un token cuya firma y expiración ya fueron verificadas.
+     */
+    public void put(String token, JwtPrincipal principal) {
+        if (principal.expiresAt() == null || principal.isExpired(Instant.now())) {
+            return;
+        }
+        cache.put(TokenDigest.of(token), principal);
+    }
+
+    /**
+     * Clave compacta de 256 bits derivada del token, para no retener tokens en claro en memoria.
+     */
+    private record TokenDigest(long h0, long h1, long h2, long h3) {
+
+        static TokenDigest of(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256")
+                        .digest(token.getBytes(StandardCharsets.US_ASCII));
+                ByteBuffer buffer = ByteBuffer.wrap(digest);
+                return new TokenDigest(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 no disponible", e);
+            }
+        }
+    }
+
+    /**
+     * Hace expirar cada entrada en el instante "exp" de su token.
+     */
+    private static final class TokenExpiry implements Expiry<TokenDigest, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, JwtPrincipal value, long currentTime) {
+            long remainingMillis = value.expiresAt().toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, JwtPrincipal value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, JwtPrincipal value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.prueba.login.authentication.internal.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Almacén de refresh tokens rotativos.
+ * Las altas y revocaciones se acumulan en memoria y se escriben en lotes JDBC (write-behind);
+ * la validación consulta primero lo pendiente y luego un único lookup indexado por hash.
+ */
+@Component
+@ApplicationModule
+public class RefreshTokenStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenStore.class);
+    private static final int TOKEN_BYTES = 32;
+    /**
+     * Alta idempotente: un lote que falló a medias se reintenta entero sin chocar con
+     * uk_refresh_tokens_token_hash por las filas que sí llegó a escribir.
+     */
+    private static final String INSERT_SQL =
+            "INSERT INTO refresh_tokens (token_hash, user_id, expires_at, revoked) "
+                    + "SELECT ?, ?, ?, false FROM DUAL "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM refresh_tokens WHERE token_hash = ?)";
+    private static final String REVOKE_SQL =
+            "UPDATE refresh_tokens SET revoked = true WHERE token_hash = ?";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+    /**
+     * Lectura-escritura: con réplica, un token recién volcado aún puede no haber llegado a ella.
+     */
+    private final TransactionTemplate primaryTransaction;
+    private final Duration refreshTokenTtl;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Map<ByteBuffer, PendingToken> pendingInserts = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<byte[]> pendingRevocations = new ConcurrentLinkedQueue<>();
+    private final Cache<ByteBuffer, Boolean> recentlyConsumed;
+    /**
+     * Serializa el volcado con revokeAll: sin él, un volcado que ya copió las altas pendientes
+     * podría insertarlas como vigentes después de que revokeAll las descartara y revocara en BD.
+     */
+    private final Object writeLock = new Object();
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.jwt.refresh.expiration:30d}") Duration refreshTokenTtl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTokenTtl = refreshTokenTtl;
+        this.recentlyConsumed = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build();
+    }
+
+    /**
+     * Emite un nuevo refresh token para el usuario. El token en claro solo se devuelve al cliente.
+     */
+    public String issue(Long userId) {
+        byte[] raw = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(raw);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+
+        byte[] hash = hash(token);
+        pendingInserts.put(ByteBuffer.wrap(hash), new PendingToken(hash, userId, Instant.now().plus(refreshTokenTtl)));
+        return token;
+    }
+
+    /**
+     * Consume un refresh token válido y devuelve el ID de su usuario; el token queda revocado.
+     * Si se presenta un token ya consumido se revocan todos los tokens del usuario (posible robo).
+     */
+    public Long consume(String token) {
+        byte[] hash = hash(token);
+        ByteBuffer key = ByteBuffer.wrap(hash);
+
+        PendingToken pending = pendingInserts.get(key);
+        Long userId;
+        Instant expiresAt;
+        boolean revoked;
+        if (pending != null) {
+            userId = pending.userId();
+            expiresAt = pending.expiresAt();
+            revoked = false;
+        } else {
+            RefreshToken stored = primaryTransaction.execute(status -> refreshTokenRepository.findByTokenHash(hash))
+                    .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token inválido"));
+            userId = stored.getUserId();
+            expiresAt = stored.getExpiresAt();
+            revoked = stored.getRevoked();
+        }
+
+        if (revoked || recentlyConsumed.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+            revokeAll(userId);
+            throw new InvalidRefreshTokenException("Refresh token ya utilizado");
+        }
+        pendingRevocations.add(hash);
+
+        if (!expiresAt.isAfter(Instant.now())) {
+            throw new InvalidRefreshTokenException("Refresh token expirado");
+        }
+        return userId;
+    }
+
+    /**
+     * Revoca un refresh token concreto, por ejemplo al cerrar sesión. Un token desconocido se ignora.
+     */
+    public void revoke(String token) {
+        byte[] hash = hash(token);
+        if (pendingInserts.remove(ByteBuffer.wrap(hash)) == null) {
+            pendingRevocations.add(hash);
+        }
+    }
+
+    /**
+     * Revoca de inmediato todos los refresh tokens del usuario, incluidos los aún no persistidos.
+     */
+    public void revokeAll(Long userId) {
+        synchronized (writeLock) {
+            pendingInserts.values().removeIf(pending -> pending.userId().equals(userId));
+            refreshTokenRepository.revokeAllByUserId(userId);
+        }
+    }
+
+    /**
+     * Escribe en lote las altas y revocaciones pendientes. Cada escritura se intenta aunque la otra
+     * falle; lo que no se pudo escribir se conserva y se reintenta en el siguiente volcado. La
+     * revocación de un token cuya alta sigue pendiente espera a que el alta se confirme.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.refresh.flush-interval:200ms}")
+    public void flush() {
+        synchronized (writeLock) {
+            RuntimeException failure = null;
+
+            List<PendingToken> inserts = new ArrayList<>(pendingInserts.values());
+            if (!inserts.isEmpty()) {
+                try {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, pending) -> {
+                        ps.setBytes(1, pending.hash());
+                        ps.setLong(2, pending.userId());
+                        ps.setTimestamp(3, Timestamp.from(pending.expiresAt()));
+                        ps.setBytes(4, pending.hash());
+                    });
+                    inserts.forEach(pending -> pendingInserts.remove(ByteBuffer.wrap(pending.hash()), pending));
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+
+            List<byte[]> revocations = new ArrayList<>();
+            List<byte[]> deferred = new ArrayList<>();
+            for (byte[] hash; (hash = pendingRevocations.poll()) != null; ) {
+                (pendingInserts.containsKey(ByteBuffer.wrap(hash)) ? deferred : revocations).add(hash);
+            }
+            pendingRevocations.addAll(deferred);
+            if (!revocations.isEmpty()) {
+                try {
+                    jdbcTemplate.batchUpdate(REVOKE_SQL, revocations, revocations.size(),
+                            (ps, hash) -> ps.setBytes(1, hash));
+                } catch (RuntimeException e) {
+                    pendingRevocations.addAll(revocations);
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Elimina periódicamente los refresh tokens expirados.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.refresh.cleanup-interval:1h}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Refresh tokens expirados eliminados: {}", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Refresh token emitido aún no persistido.
+     */
+    private record PendingToken(byte[] hash, Long userId, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.prueba.login.authentication.internal.token;
+
+import com.prueba.login.user.api.events.UserAccessRevoked;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Revoca los tokens de un usuario cuando el módulo User le retira el acceso.
+ */
+@Component
+@ApplicationModule
+public class TokenRevocationListener {
+
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final RefreshTokenStore refreshTokenStore;
+
+    public TokenRevocationListener(TokenRevocationRegistry tokenRevocationRegistry,
+                                   RefreshTokenStore refreshTokenStore) {
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.refreshTokenStore = refreshTokenStore;
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(UserAccessRevoked event) {
+        tokenRevocationRegistry.revokeUser(event.userId(), event.revokedAt());
+        refreshTokenStore.revokeAll(event.userId());
+    }
+}
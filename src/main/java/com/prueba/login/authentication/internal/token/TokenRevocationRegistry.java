@@ -0,0 +1,157 @@
+package com.prueba.login.authentication.internal.token;
+
+import com.prueba.login.authentication.internal.security.JwtPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de revocación de tokens JWT, por jti y por usuario.
+ * El chequeo en cada petición es en memoria: un filtro de Bloom descarta el caso común
+ * (token no revocado) y un conjunto exacto confirma los positivos. Se reconstruye desde
+ * las tablas al arrancar y periódicamente, para recoger revocaciones de otros nodos.
+ */
+@Component
+@ApplicationModule
+public class TokenRevocationRegistry {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+    private static final long MIN_CAPACITY = 1024;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserTokenRevocationRepository userTokenRevocationRepository;
+    /**
+     * Lectura-escritura: con réplica, una revocación de otro nodo aún puede no haber llegado a ella.
+     */
+    private final TransactionTemplate primaryTransaction;
+    private final Duration accessTokenTtl;
+
+    private volatile BloomFilter revokedTokenFilter = new BloomFilter(MIN_CAPACITY, FALSE_POSITIVE_RATE);
+    private volatile Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private volatile Map<Long, Instant> userWatermarks = new ConcurrentHashMap<>();
+    /**
+     * Protege el paso de las revocaciones locales a las estructuras que publica reload(), para que
+     * ninguna registrada durante la consulta se pierda al reemplazarlas.
+     */
+    private final Object publishLock = new Object();
+
+    public TokenRevocationRegistry(RevokedTokenRepository revokedTokenRepository,
+                                   UserTokenRevocationRepository userTokenRevocationRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.jwt.expiration:900000}") long accessTokenTtlMs) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userTokenRevocationRepository = userTokenRevocationRepository;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.accessTokenTtl = Duration.ofMillis(accessTokenTtlMs);
+    }
+
+    /**
+     * Indica si el token fue revocado, ya sea individualmente o por su usuario.
+     * Con revocaciones por usuario activas, un token sin ID de usuario (emitido antes del claim uid)
+     * no se puede comprobar y se considera revocado; el cliente obtiene otro con su refresh token.
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        Map<Long, Instant> watermarks = userWatermarks;
+        if (!watermarks.isEmpty()) {
+            if (principal.userId() == null) {
+                return true;
+            }
+            Instant revokedBefore = watermarks.get(principal.userId());
+            if (revokedBefore != null
+                    && (principal.issuedAt() == null || principal.issuedAt().isBefore(revokedBefore))) {
+                return true;
+            }
+        }
+
+        String tokenId = principal.tokenId();
+        return tokenId != null
+                && revokedTokenFilter.mightContain(tokenId)
+                && revokedTokens.containsKey(tokenId);
+    }
+
+    /**
+     * Revoca un token concreto hasta su expiración.
+     */
+    public void revokeToken(String tokenId, Instant expiresAt) {
+        revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt));
+        synchronized (publishLock) {
+            revokedTokens.put(tokenId, expiresAt);
+            revokedTokenFilter.put(tokenId);
+        }
+    }
+
+    /**
+     * Invalida todos los tokens del usuario emitidos hasta el instante dado.
+     * Se identifica al usuario por su ID, que no cambia al renombrarlo.
+     * El claim iat tiene precisión de segundos, por lo que la marca se redondea al segundo siguiente.
+     */
+    public void revokeUser(Long userId, Instant revokedAt) {
+        Instant revokedBefore = revokedAt.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        userTokenRevocationRepository.save(new UserTokenRevocation(userId, revokedBefore));
+        synchronized (publishLock) {
+            userWatermarks.merge(userId, revokedBefore, TokenRevocationRegistry::latest);
+        }
+    }
+
+    /**
+     * Reconstruye las estructuras en memoria desde las tablas y purga lo que ya no afecta a tokens vigentes.
+     * Las revocaciones locales aún vigentes se conservan: las registradas mientras se consultaba
+     * (o cuya transacción no había confirmado) no figuran en el resultado.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.reload-interval:30s}",
+            initialDelayString = "${app.jwt.revocation.reload-interval:30s}")
+    public void reload() {
+        Instant now = Instant.now();
+        Instant watermarkCutoff = now.minus(accessTokenTtl);
+        revokedTokenRepository.deleteExpired(now);
+        userTokenRevocationRepository.deleteOlderThan(watermarkCutoff);
+
+        Map<String, Instant> tokens = new ConcurrentHashMap<>();
+        Map<Long, Instant> watermarks = new ConcurrentHashMap<>();
+        primaryTransaction.executeWithoutResult(status -> {
+            for (RevokedToken revoked : revokedTokenRepository.findActive(now)) {
+                tokens.put(revoked.getTokenId(), revoked.getExpiresAt());
+            }
+            for (UserTokenRevocation revocation : userTokenRevocationRepository.findAll()) {
+                watermarks.merge(revocation.getUserId(), revocation.getRevokedBefore(),
+                        TokenRevocationRegistry::latest);
+            }
+        });
+
+        synchronized (publishLock) {
+            revokedTokens.forEach((tokenId, expiresAt) -> {
+                if (expiresAt.isAfter(now)) {
+                    tokens.putIfAbsent(tokenId, expiresAt);
+                }
+            });
+            userWatermarks.forEach((userId, revokedBefore) -> {
+                if (!revokedBefore.isBefore(watermarkCutoff)) {
+                    watermarks.merge(userId, revokedBefore, TokenRevocationRegistry::latest);
+                }
+            });
+
+            BloomFilter filter = new BloomFilter(Math.max(MIN_CAPACITY, tokens.size() * 2L), FALSE_POSITIVE_RATE);
+            tokens.keySet().forEach(filter::put);
+
+            revokedTokens = tokens;
+            revokedTokenFilter = filter;
+            userWatermarks = watermarks;
+        }
+    }
+
+    private static Instant latest(Instant current, Instant candidate) {
+        return candidate.isAfter(current) ? candidate : current;
+    }
+}
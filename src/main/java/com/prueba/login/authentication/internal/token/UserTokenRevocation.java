@@ -0,0 +1,26 @@
+package com.prueba.login.authentication.internal.token;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Marca de revocación por usuario: los tokens emitidos antes de revokedBefore son inválidos.
+ */
+@Entity
+@Table(name = "user_token_revocations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserTokenRevocation {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "revoked_before", nullable = false)
+    private Instant revokedBefore;
+}
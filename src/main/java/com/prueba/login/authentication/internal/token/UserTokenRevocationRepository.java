@@ -0,0 +1,25 @@
+package com.prueba.login.authentication.internal.token;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Repositorio para operaciones de persistencia de revocaciones por usuario.
+ */
+@Repository
+public interface UserTokenRevocationRepository extends JpaRepository<UserTokenRevocation, Long> {
+
+    /**
+     * Elimina las marcas anteriores al instante dado, que ya no afectan a ningún token vigente.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserTokenRevocation r WHERE r.revokedBefore < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
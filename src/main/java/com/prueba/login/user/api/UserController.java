@@ -1,11 +1,17 @@
 package com.prueba.login.user.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prueba.login.user.application.UserImportService;
 import com.prueba.login.user.application.UserService;
 import com.prueba.login.user.api.dto.request.CreateUserRequest;
 import com.prueba.login.user.api.dto.request.UpdateUserRequest;
+import com.prueba.login.user.api.dto.response.UserPageResponse;
 import com.prueba.login.user.api.dto.response.UserResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,9 +21,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
 /**
  * Controlador REST para la gestión de usuarios.
@@ -27,10 +37,18 @@ import java.util.List;
 @RequestMapping("/api/v1/users")
 public class UserController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.objectMapper = objectMapper.copy()
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     /**
@@ -42,6 +60,24 @@ public class UserController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Importa usuarios en bloque desde NDJSON (un CreateUserRequest por línea) o CSV con cabecera
+     * username,email,password. Devuelve en NDJSON el resultado de cada fila a medida que se procesa.
+     */
+    @PostMapping(value = "/import", consumes = {NDJSON, CSV}, produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> importUsers(HttpServletRequest request) {
+        UserImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.NDJSON;
+
+        StreamingResponseBody body = outputStream -> userImportService.importUsers(
+                request.getInputStream(), format, result -> writeLine(outputStream, result));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
     /**
      * Obtiene un usuario por su ID.
      */
@@ -60,11 +96,24 @@ public class UserController {
     }
 
     /**
-     * Obtiene todos los usuarios del sistema.
+     * Obtiene los usuarios del sistema paginados por cursor sobre el ID.
      */
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        return new ResponseEntity<>(userService.getAllUsers(), HttpStatus.OK);
+    public ResponseEntity<UserPageResponse> getAllUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        return new ResponseEntity<>(userService.getAllUsers(after, size), HttpStatus.OK);
+    }
+
+    /**
+     * Exporta todos los usuarios del sistema como NDJSON, un usuario por línea.
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        StreamingResponseBody body = outputStream -> userService.streamAllUsers(user -> writeLine(outputStream, user));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 
     /**
@@ -85,4 +134,13 @@ public class UserController {
         userService.deleteUser(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    private void writeLine(OutputStream outputStream, Object value) {
+        try {
+            objectMapper.writeValue(outputStream, value);
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
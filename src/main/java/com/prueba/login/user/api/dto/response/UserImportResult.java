@@ -0,0 +1,25 @@
+package com.prueba.login.user.api.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Resultado de importar una fila: CREATED con el ID asignado, o REJECTED con el motivo.
+ * line es el número de línea de la fila en el cuerpo de la petición.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserImportResult(
+    long line,
+    String status,
+    Long id,
+    String username,
+    String error
+) {
+
+    public static UserImportResult created(long line, Long id, String username) {
+        return new UserImportResult(line, "CREATED", id, username, null);
+    }
+
+    public static UserImportResult rejected(long line, String username, String error) {
+        return new UserImportResult(line, "REJECTED", null, username, error);
+    }
+}
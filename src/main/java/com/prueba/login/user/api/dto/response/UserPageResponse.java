@@ -0,0 +1,14 @@
+package com.prueba.login.user.api.dto.response;
+
+import java.util.List;
+
+/**
+ * Página de usuarios paginada por cursor (keyset) sobre el ID.
+ * nextCursor es null cuando no hay más resultados.
+ */
+public record UserPageResponse(
+    List<UserResponse> content,
+    int size,
+    Long nextCursor
+) {
+}
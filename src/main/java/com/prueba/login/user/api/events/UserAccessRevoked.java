@@ -0,0 +1,14 @@
+package com.prueba.login.user.api.events;
+
+import java.time.Instant;
+
+/**
+ * Evento publicado cuando un usuario pierde el acceso (deshabilitado o eliminado).
+ * Los tokens emitidos antes de revokedAt dejan de ser válidos.
+ */
+public record UserAccessRevoked(
+    Long userId,
+    String username,
+    Instant revokedAt
+) {
+}
@@ -0,0 +1,13 @@
+package com.prueba.login.user.api.events;
+
+import java.time.Instant;
+
+/**
+ * Evento publicado cuando se elimina un usuario.
+ */
+public record UserDeleted(
+    Long userId,
+    String username,
+    Instant occurredAt
+) {
+}
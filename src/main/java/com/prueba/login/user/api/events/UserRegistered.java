@@ -0,0 +1,13 @@
+package com.prueba.login.user.api.events;
+
+import java.time.Instant;
+
+/**
+ * Evento publicado cuando se registra un nuevo usuario.
+ */
+public record UserRegistered(
+    Long userId,
+    String username,
+    Instant occurredAt
+) {
+}
@@ -0,0 +1,13 @@
+package com.prueba.login.user.api.events;
+
+import java.time.Instant;
+
+/**
+ * Evento publicado cuando se modifican los datos de un usuario.
+ */
+public record UserUpdated(
+    Long userId,
+    String username,
+    Instant occurredAt
+) {
+}
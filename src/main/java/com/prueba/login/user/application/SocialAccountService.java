@@ -0,0 +1,158 @@
+package com.prueba.login.user.application;
+
+import com.prueba.login.user.api.events.UserRegistered;
+import com.prueba.login.user.application.UserLookupCache.LinkedAccount;
+import com.prueba.login.user.internal.authority.RoleAuthorityIndex;
+import com.prueba.login.user.internal.exceptions.BadRequestException;
+import com.prueba.login.user.internal.exceptions.ResourceNotFoundException;
+import com.prueba.login.user.internal.model.AuthProvider;
+import com.prueba.login.user.internal.model.CustomerUser;
+import com.prueba.login.user.internal.model.Role;
+import com.prueba.login.user.internal.model.RoleName;
+import com.prueba.login.user.internal.repository.RoleRepository;
+import com.prueba.login.user.internal.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Alta y resolución de usuarios autenticados con un proveedor OAuth2.
+ * La cuenta se identifica por (auth_provider, provider_id) y se crea o actualiza con un único upsert
+ * sobre su restricción única; los usuarios que vuelven se resuelven desde caché sin consultar la base de datos.
+ */
+@Service
+@ApplicationModule
+public class SocialAccountService {
+
+    /**
+     * Marcador de contraseña inutilizable: no es un hash válido, así que ningún login por contraseña coincide.
+     */
+    private static final String UNUSABLE_PASSWORD = "!";
+
+    private static final int MAX_USERNAME_LENGTH = 50;
+    private static final String MYSQL_UPSERT_SQL =
+            "INSERT INTO users (username, email, password, enabled, auth_provider, provider_id) "
+            + "VALUES (?, ?, ?, true, ?, ?) "
+            // una colisión con otra cuenta (username o email) no debe modificarla
+            + "ON DUPLICATE KEY UPDATE email = IF(auth_provider = VALUES(auth_provider) "
+            + "AND provider_id = VALUES(provider_id), VALUES(email), email)";
+    private static final String MERGE_UPSERT_SQL =
+            "MERGE INTO users u USING (SELECT CAST(? AS VARCHAR(50)) AS username, "
+            + "CAST(? AS VARCHAR(100)) AS email, CAST(? AS VARCHAR(255)) AS password, "
+            + "CAST(? AS VARCHAR(255)) AS auth_provider, CAST(? AS VARCHAR(255)) AS provider_id) s "
+            + "ON u.auth_provider = s.auth_provider AND u.provider_id = s.provider_id "
+            + "WHEN MATCHED THEN UPDATE SET email = s.email "
+            + "WHEN NOT MATCHED THEN INSERT (username, email, password, enabled, auth_provider, provider_id) "
+            + "VALUES (s.username, s.email, s.password, true, s.auth_provider, s.provider_id)";
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final RoleAuthorityIndex roleAuthorityIndex;
+    private final UserLookupCache userLookupCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String upsertSql;
+
+    public SocialAccountService(UserRepository userRepository,
+                                RoleRepository roleRepository,
+                                RoleAuthorityIndex roleAuthorityIndex,
+                                UserLookupCache userLookupCache,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.roleAuthorityIndex = roleAuthorityIndex;
+        this.userLookupCache = userLookupCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.upsertSql = isMySql(jdbcTemplate) ? MYSQL_UPSERT_SQL : MERGE_UPSERT_SQL;
+    }
+
+    /**
+     * Obtiene el usuario local de la cuenta del proveedor, creándolo con el rol por defecto si es nuevo.
+     * El email se actualiza con el informado por el proveedor cada vez que la asociación se resuelve
+     * contra la base de datos.
+     *
+     * @throws BadRequestException si el nombre de usuario o el email ya pertenecen a otra cuenta
+     */
+    public CustomerUser resolve(AuthProvider provider, String providerId, String email) {
+        String providerKey = provider.name() + ':' + providerId;
+
+        LinkedAccount linked = userLookupCache.getLinkedAccount(providerKey);
+        if (linked != null) {
+            CustomerUser user = userLookupCache.getUserDetails(linked.username(), name -> transactionTemplate.execute(
+                    status -> userRepository.findByUsernameWithRoles(name).orElse(null)));
+            if (user != null && user.getId().equals(linked.userId())) {
+                return user;
+            }
+            userLookupCache.unlink(providerKey);
+        }
+
+        CustomerUser user = transactionTemplate.execute(status -> upsert(provider, providerId, email));
+        userLookupCache.link(providerKey, user.getId(), user.getUsername());
+        // deja el usuario en caché para que el próximo login no lo vuelva a cargar
+        userLookupCache.getUserDetails(user.getUsername(), name -> user);
+        return user;
+    }
+
+    private CustomerUser upsert(AuthProvider provider, String providerId, String email) {
+        String username = usernameFor(provider, providerId);
+        try {
+            jdbcTemplate.update(upsertSql, username, emailOrPlaceholder(email, username),
+                    UNUSABLE_PASSWORD, provider.name(), providerId);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("El nombre de usuario o el email ya están registrados", e);
+        }
+
+        CustomerUser user = userRepository.findByProviderWithRoles(provider, providerId)
+                .orElseThrow(() -> new BadRequestException("El nombre de usuario o el email ya están registrados"));
+
+        if (user.getRoles().isEmpty()) {
+            user.getRoles().add(defaultRole());
+            userLookupCache.evictAfterCommit(user.getUsername());
+            eventPublisher.publishEvent(new UserRegistered(user.getId(), user.getUsername(), Instant.now()));
+        }
+        return user;
+    }
+
+    private Role defaultRole() {
+        Long roleId = roleAuthorityIndex.current().roleId(RoleName.ROLE_USER);
+        return (roleId != null ? roleRepository.findById(roleId) : roleRepository.findByName(RoleName.ROLE_USER))
+                .orElseThrow(() -> new ResourceNotFoundException("Rol no encontrado"));
+    }
+
+    private static String usernameFor(AuthProvider provider, String providerId) {
+        String username = provider.name().toLowerCase(Locale.ROOT) + '_' + providerId;
+        return username.length() > MAX_USERNAME_LENGTH ? username.substring(0, MAX_USERNAME_LENGTH) : username;
+    }
+
+    /**
+     * Los proveedores pueden no compartir el email; se usa una dirección reservada (.invalid) única por cuenta.
+     */
+    private static String emailOrPlaceholder(String email, String username) {
+        return email != null && !email.isBlank() ? email : username + "@users.invalid";
+    }
+
+    private static boolean isMySql(JdbcTemplate jdbcTemplate) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            return "MySQL".equalsIgnoreCase(product) || "MariaDB".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("No se pudo determinar el motor de base de datos", e);
+        }
+    }
+}
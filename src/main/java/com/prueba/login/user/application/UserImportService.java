@@ -0,0 +1,369 @@
+package com.prueba.login.user.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prueba.login.user.api.dto.request.CreateUserRequest;
+import com.prueba.login.user.api.dto.response.UserImportResult;
+import com.prueba.login.user.api.events.UserRegistered;
+import com.prueba.login.user.internal.authority.RoleAuthorityIndex;
+import com.prueba.login.user.internal.exceptions.BadRequestException;
+import com.prueba.login.user.internal.exceptions.ResourceNotFoundException;
+import com.prueba.login.user.internal.model.AuthProvider;
+import com.prueba.login.user.internal.model.RoleName;
+import com.prueba.login.user.internal.repository.RoleRepository;
+import com.prueba.login.user.internal.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de usuarios desde NDJSON o CSV.
+ * Las filas se procesan por bloques: unicidad con una consulta por conjunto, hash de contraseñas
+ * en paralelo y alta con inserciones JDBC por lotes. El resultado de cada fila se emite en orden.
+ */
+@Service
+@ApplicationModule
+public class UserImportService {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, email, password, enabled, auth_provider) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_USER_ROLE_SQL =
+            "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    private static final List<String> CSV_COLUMNS = List.of("username", "email", "password");
+
+    /**
+     * Formatos de entrada admitidos.
+     */
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final RoleAuthorityIndex roleAuthorityIndex;
+    private final PasswordEncoder passwordEncoder;
+    private final Executor hashingExecutor;
+    private final UserLookupCache userLookupCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public UserImportService(UserRepository userRepository,
+                             RoleRepository roleRepository,
+                             RoleAuthorityIndex roleAuthorityIndex,
+                             @Qualifier("importPasswordEncoder") PasswordEncoder passwordEncoder,
+                             @Qualifier("importPasswordHashingExecutor") Executor hashingExecutor,
+                             UserLookupCache userLookupCache,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             @Value("${app.users.import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.roleAuthorityIndex = roleAuthorityIndex;
+        this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
+        this.userLookupCache = userLookupCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Importa los usuarios del flujo y entrega el resultado de cada fila al consumidor.
+     * Cada bloque se confirma en su propia transacción; un fallo en una fila no afecta a las demás.
+     */
+    public void importUsers(InputStream input, Format format, Consumer<UserImportResult> results) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Long roleId = defaultRoleId();
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        int[] csvColumns = null;
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        for (String line; (line = reader.readLine()) != null; ) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && csvColumns == null) {
+                csvColumns = csvHeader(line);
+                continue;
+            }
+
+            chunk.add(format == Format.CSV ? parseCsv(lineNumber, line, csvColumns) : parseJson(lineNumber, line));
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, roleId, seenUsernames, seenEmails, results);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, roleId, seenUsernames, seenEmails, results);
+        }
+    }
+
+    private void processChunk(List<ImportRow> chunk, Long roleId, Set<String> seenUsernames,
+                              Set<String> seenEmails, Consumer<UserImportResult> results) {
+        List<UserImportResult> outcomes = new ArrayList<>(chunk.size());
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+
+        for (ImportRow row : chunk) {
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error == null && !seenUsernames.add(normalize(row.request().username()))) {
+                error = "Nombre de usuario repetido en la importación";
+            }
+            if (error == null && !seenEmails.add(normalize(row.request().email()))) {
+                error = "Email repetido en la importación";
+            }
+            if (error != null) {
+                outcomes.add(UserImportResult.rejected(row.line(), username(row), error));
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            Set<String> takenUsernames = normalized(userRepository.findExistingUsernames(
+                    candidates.stream().map(row -> row.request().username()).toList()));
+            Set<String> takenEmails = normalized(userRepository.findExistingEmails(
+                    candidates.stream().map(row -> row.request().email()).toList()));
+
+            List<ImportRow> accepted = new ArrayList<>(candidates.size());
+            for (ImportRow row : candidates) {
+                if (takenUsernames.contains(normalize(row.request().username()))) {
+                    outcomes.add(UserImportResult.rejected(row.line(), row.request().username(),
+                            "El nombre de usuario ya está en uso"));
+                } else if (takenEmails.contains(normalize(row.request().email()))) {
+                    outcomes.add(UserImportResult.rejected(row.line(), row.request().username(),
+                            "El email ya está registrado"));
+                } else {
+                    accepted.add(row);
+                }
+            }
+
+            if (!accepted.isEmpty()) {
+                // el pool del encoder reparte los hashes; el envío espera cuando está lleno
+                List<CompletableFuture<String>> hashing = accepted.stream()
+                        .map(row -> CompletableFuture.supplyAsync(
+                                () -> passwordEncoder.encode(row.request().password()), hashingExecutor))
+                        .toList();
+                List<String> hashes = hashing.stream().map(CompletableFuture::join).toList();
+                outcomes.addAll(insert(accepted, hashes, roleId));
+            }
+        }
+
+        outcomes.sort(Comparator.comparingLong(UserImportResult::line));
+        outcomes.forEach(results);
+    }
+
+    /**
+     * Inserta el bloque en una transacción. Si otra petición registró alguno de los usuarios
+     * entretanto, el bloque se reintenta fila a fila para aislar las que fallan.
+     */
+    private List<UserImportResult> insert(List<ImportRow> rows, List<String> hashes, Long roleId) {
+        try {
+            return transactionTemplate.execute(status -> insertBatch(rows, hashes, roleId));
+        } catch (DataIntegrityViolationException e) {
+            List<UserImportResult> outcomes = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                ImportRow row = rows.get(i);
+                List<String> hash = List.of(hashes.get(i));
+                try {
+                    outcomes.addAll(transactionTemplate.execute(status -> insertBatch(List.of(row), hash, roleId)));
+                } catch (DataIntegrityViolationException rowFailure) {
+                    outcomes.add(UserImportResult.rejected(row.line(), row.request().username(),
+                            "El nombre de usuario o el email ya están registrados"));
+                }
+            }
+            return outcomes;
+        }
+    }
+
+    private List<UserImportResult> insertBatch(List<ImportRow> rows, List<String> hashes, Long roleId) {
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_USER_SQL, new String[] {"id"})) {
+                for (int i = 0; i < rows.size(); i++) {
+                    CreateUserRequest request = rows.get(i).request();
+                    ps.setString(1, request.username());
+                    ps.setString(2, request.email());
+                    ps.setString(3, hashes.get(i));
+                    ps.setBoolean(4, true);
+                    ps.setString(5, AuthProvider.LOCAL.name());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> generated = new ArrayList<>(rows.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        generated.add(keys.getLong(1));
+                    }
+                }
+                return generated;
+            }
+        });
+        if (ids == null || ids.size() != rows.size()) {
+            throw new IllegalStateException("El driver JDBC no devolvió los IDs generados del lote");
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setLong(2, roleId);
+        });
+
+        Instant now = Instant.now();
+        List<UserImportResult> outcomes = new ArrayList<>(rows.size());
+        String[] usernames = new String[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            String username = rows.get(i).request().username();
+            usernames[i] = username;
+            eventPublisher.publishEvent(new UserRegistered(ids.get(i), username, now));
+            outcomes.add(UserImportResult.created(rows.get(i).line(), ids.get(i), username));
+        }
+        userLookupCache.evictAfterCommit(usernames);
+        return outcomes;
+    }
+
+    private Long defaultRoleId() {
+        Long roleId = roleAuthorityIndex.current().roleId(RoleName.ROLE_USER);
+        if (roleId != null) {
+            return roleId;
+        }
+        return roleRepository.findByName(RoleName.ROLE_USER)
+                .orElseThrow(() -> new ResourceNotFoundException("Rol no encontrado"))
+                .getId();
+    }
+
+    private ImportRow parseJson(long line, String json) {
+        try {
+            return new ImportRow(line, objectMapper.readValue(json, CreateUserRequest.class), null);
+        } catch (JsonProcessingException e) {
+            return new ImportRow(line, null, "JSON inválido");
+        }
+    }
+
+    private static int[] csvHeader(String line) {
+        List<String> header = splitCsv(line).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = header.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new BadRequestException("La cabecera CSV debe incluir las columnas " + CSV_COLUMNS);
+            }
+        }
+        return columns;
+    }
+
+    private static ImportRow parseCsv(long line, String text, int[] columns) {
+        List<String> values = splitCsv(text);
+        String[] fields = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] >= values.size()) {
+                return new ImportRow(line, null, "Faltan columnas en la fila CSV");
+            }
+            fields[i] = values.get(columns[i]).trim();
+        }
+        return new ImportRow(line, new CreateUserRequest(fields[0], fields[1], fields[2]), null);
+    }
+
+    /**
+     * Separa una línea CSV (RFC 4180) respetando los campos entre comillas dobles.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private String validate(CreateUserRequest request) {
+        Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String username(ImportRow row) {
+        return row.request() != null ? row.request().username() : null;
+    }
+
+    private static Set<String> normalized(List<String> values) {
+        return values.stream().map(UserImportService::normalize).collect(Collectors.toSet());
+    }
+
+    /**
+     * Las columnas únicas se comparan sin distinguir mayúsculas, como la colación por defecto de MySQL.
+     */
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private record ImportRow(long line, CreateUserRequest request, String error) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.prueba.login.user.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prueba.login.user.api.dto.response.UserResponse;
+import com.prueba.login.user.internal.model.CustomerUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caché acotada de usuarios indexada por nombre de usuario.
+ * Evita repetir la consulta de usuario con roles y permisos en autenticación y en el perfil,
+ * y recuerda los nombres inexistentes para responder logins inválidos sin consultar la base de datos.
+ * También asocia cada cuenta de proveedor OAuth2 con su usuario local.
+ * Los loaders deben leer del primario: lo que cargan se sirve hasta la invalidación o el TTL.
+ * Las claves se normalizan a minúsculas, como compara la colación por defecto de MySQL, para que
+ * la invalidación por el nombre almacenado alcance también lo cargado con otra capitalización.
+ */
+@Component
+@ApplicationModule
+public class UserLookupCache {
+
+    private final Cache<String, CustomerUser> userDetails;
+    private final Cache<String, UserResponse> profiles;
+    private final Cache<String, Boolean> absentUsernames;
+    private final Cache<String, LinkedAccount> linkedAccounts;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserLookupCache(
+            @Value("${app.cache.users.max-size:10000}") long maxSize,
+            @Value("${app.cache.users.ttl:5m}") Duration ttl,
+            @Value("${app.cache.users.absent-max-size:100000}") long absentMaxSize,
+            @Value("${app.cache.users.absent-ttl:10m}") Duration absentTtl,
+            @Value("${app.cache.users.linked-ttl:1h}") Duration linkedTtl,
+            MeterRegistry meterRegistry) {
+        this.userDetails = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.absentUsernames = Caffeine.newBuilder()
+                .maximumSize(absentMaxSize)
+                .expireAfterWrite(absentTtl)
+                .recordStats()
+                .build();
+        this.linkedAccounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(linkedTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userDetails, "users.details");
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "users.profiles");
+        CaffeineCacheMetrics.monitor(meterRegistry, absentUsernames, "users.absent");
+        CaffeineCacheMetrics.monitor(meterRegistry, linkedAccounts, "users.linked-accounts");
+    }
+
+    /**
+     * Obtiene el usuario para autenticación, cargándolo con el loader si no está en caché.
+     * Devuelve null si el usuario no existe; la ausencia también se cachea hasta que una
+     * invalidación (alta o renombrado) la descarte.
+     */
+    public CustomerUser getUserDetails(String username, Function<String, CustomerUser> loader) {
+        String key = normalize(username);
+        if (absentUsernames.getIfPresent(key) != null) {
+            return null;
+        }
+
+        long generation = invalidations.get();
+        CustomerUser user = userDetails.get(key, ignored -> loader.apply(username));
+        // si hubo una invalidación durante la carga, la ausencia observada puede estar obsoleta
+        if (user == null && invalidations.get() == generation) {
+            absentUsernames.put(key, Boolean.TRUE);
+        }
+        return user;
+    }
+
+    /**
+     * Obtiene el perfil del usuario, cargándolo con el loader si no está en caché.
+     */
+    public UserResponse getProfile(String username, Function<String, UserResponse> loader) {
+        return profiles.get(normalize(username), ignored -> loader.apply(username));
+    }
+
+    /**
+     * Usuario local asociado a la cuenta del proveedor, o null si no está en caché.
+     */
+    LinkedAccount getLinkedAccount(String providerKey) {
+        return linkedAccounts.getIfPresent(providerKey);
+    }
+
+    /**
+     * Registra la asociación entre la cuenta del proveedor y el usuario local.
+     */
+    void link(String providerKey, Long userId, String username) {
+        linkedAccounts.put(providerKey, new LinkedAccount(userId, username));
+    }
+
+    /**
+     * Descarta una asociación que dejó de ser válida (usuario borrado o renombrado).
+     */
+    void unlink(String providerKey) {
+        linkedAccounts.invalidate(providerKey);
+    }
+
+    /**
+     * Invalida las entradas de los usuarios dados una vez confirmada la transacción actual,
+     * o de inmediato si no hay transacción activa.
+     */
+    public void evictAfterCommit(String... usernames) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(usernames);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(usernames);
+            }
+        });
+    }
+
+    private void evict(String... usernames) {
+        invalidations.incrementAndGet();
+        for (String username : usernames) {
+            if (username != null) {
+                String key = normalize(username);
+                userDetails.invalidate(key);
+                profiles.invalidate(key);
+                absentUsernames.invalidate(key);
+            }
+        }
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Usuario local vinculado a una cuenta de proveedor OAuth2.
+     */
+    record LinkedAccount(Long userId, String username) {
+    }
+}
@@ -2,20 +2,37 @@ package com.prueba.login.user.application;
 
 import com.prueba.login.user.api.dto.request.CreateUserRequest;
 import com.prueba.login.user.api.dto.request.UpdateUserRequest;
+import com.prueba.login.user.api.dto.response.UserPageResponse;
 import com.prueba.login.user.api.dto.response.UserResponse;
+import com.prueba.login.user.api.events.UserAccessRevoked;
+import com.prueba.login.user.api.events.UserDeleted;
+import com.prueba.login.user.api.events.UserRegistered;
+import com.prueba.login.user.api.events.UserUpdated;
+import com.prueba.login.user.internal.authority.AuthoritySnapshot;
+import com.prueba.login.user.internal.authority.RoleAuthorityIndex;
 import com.prueba.login.user.internal.model.*;
 import com.prueba.login.user.internal.repository.RoleRepository;
 import com.prueba.login.user.internal.repository.UserRepository;
 import com.prueba.login.user.internal.exceptions.ResourceNotFoundException;
 import com.prueba.login.user.internal.exceptions.BadRequestException;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.modulith.ApplicationModule;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Servicio de aplicación para la gestión de usuarios.
@@ -28,29 +45,41 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final RoleAuthorityIndex roleAuthorityIndex;
     private final PasswordEncoder passwordEncoder;
+    private final UserLookupCache userLookupCache;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     public UserService(UserRepository userRepository, 
                       RoleRepository roleRepository, 
-                      PasswordEncoder passwordEncoder) {
+                      RoleAuthorityIndex roleAuthorityIndex,
+                      PasswordEncoder passwordEncoder,
+                      UserLookupCache userLookupCache,
+                      EntityManager entityManager,
+                      ApplicationEventPublisher eventPublisher,
+                      @Value("${app.users.page.default-size:20}") int defaultPageSize,
+                      @Value("${app.users.page.max-size:100}") int maxPageSize) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.roleAuthorityIndex = roleAuthorityIndex;
         this.passwordEncoder = passwordEncoder;
+        this.userLookupCache = userLookupCache;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     /**
      * Registra un nuevo usuario en el sistema.
+     * La unicidad la garantizan las restricciones de la tabla: el alta cuesta solo el INSERT del
+     * usuario y el de su rol, y dos registros simultáneos no pueden duplicarse.
      */
     @Transactional
     public UserResponse createUser(CreateUserRequest request) {
-        if (userRepository.existsByUsername(request.username())) {
-            throw new BadRequestException("El nombre de usuario ya está en uso");
-        }
-
-        if (userRepository.existsByEmail(request.email())) {
-            throw new BadRequestException("El email ya está registrado");
-        }
-
         CustomerUser user = CustomerUser.builder()
                 .username(request.username())
                 .email(request.email())
@@ -60,39 +89,73 @@ public class UserService {
                 .build();
 
         // Asignar rol por defecto
-        Role userRole = roleRepository.findByName(RoleName.ROLE_USER)
-                .orElseThrow(() -> new ResourceNotFoundException("Rol no encontrado"));
-        user.setRoles(Set.of(userRole));
+        user.setRoles(Set.of(defaultRole()));
 
-        CustomerUser savedUser = userRepository.save(user);
-        return toUserResponse(savedUser);
+        CustomerUser savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUser(e);
+        }
+        userLookupCache.evictAfterCommit(savedUser.getUsername());
+        eventPublisher.publishEvent(new UserRegistered(savedUser.getId(), savedUser.getUsername(), Instant.now()));
+        return toUserResponse(savedUser, Set.of(RoleName.ROLE_USER));
     }
 
     /**
      * Obtiene un usuario por su ID.
      */
     public UserResponse getUserById(Long id) {
-        CustomerUser user = userRepository.findById(id)
+        CustomerUser user = userRepository.findWithRolesById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + id));
         return toUserResponse(user);
     }
 
     /**
-     * Obtiene un usuario por su nombre de usuario.
+     * Obtiene un usuario por su nombre de usuario. Lo cargado queda en caché, así que se lee del
+     * primario y no de la réplica.
      */
+    @Transactional
     public UserResponse getUserByUsername(String username) {
-        CustomerUser user = userRepository.findByUsernameWithRolesAndPermissions(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado: " + username));
-        return toUserResponse(user);
+        UserResponse response = userLookupCache.getProfile(username, name ->
+                userRepository.findByUsernameWithRoles(name)
+                        .map(this::toUserResponse)
+                        .orElse(null));
+        if (response == null) {
+            throw new ResourceNotFoundException("Usuario no encontrado: " + username);
+        }
+        return response;
     }
 
     /**
-     * Obtiene todos los usuarios del sistema.
+     * Obtiene una página de usuarios a partir del cursor dado, ordenada por ID.
      */
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::toUserResponse)
-                .collect(Collectors.toList());
+    public UserPageResponse getAllUsers(Long afterId, Integer size) {
+        int pageSize = resolvePageSize(size);
+        List<Long> ids = userRepository.findIdsAfter(afterId != null ? afterId : 0L, Limit.of(pageSize + 1));
+
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        List<UserResponse> content = pageIds.isEmpty()
+                ? List.of()
+                : userRepository.findWithRolesByIdInOrderByIdAsc(pageIds).stream()
+                        .map(this::toUserResponse)
+                        .collect(Collectors.toList());
+        Long nextCursor = hasNext ? pageIds.get(pageIds.size() - 1) : null;
+
+        return new UserPageResponse(content, pageSize, nextCursor);
+    }
+
+    /**
+     * Recorre todos los usuarios del sistema en orden de ID con memoria constante.
+     */
+    public void streamAllUsers(Consumer<UserResponse> consumer) {
+        try (Stream<CustomerUser> users = userRepository.streamAllOrderedById()) {
+            users.forEach(user -> {
+                consumer.accept(toUserResponse(user));
+                entityManager.detach(user);
+            });
+        }
     }
 
     /**
@@ -100,8 +163,9 @@ public class UserService {
      */
     @Transactional
     public UserResponse updateUser(Long id, UpdateUserRequest request) {
-        CustomerUser user = userRepository.findById(id)
+        CustomerUser user = userRepository.findWithRolesById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + id));
+        String previousUsername = user.getUsername();
 
         if (request.username() != null && !request.username().isBlank()) {
             if (!user.getUsername().equals(request.username()) && userRepository.existsByUsername(request.username())) {
@@ -121,38 +185,114 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(request.password()));
         }
 
+        boolean disabled = Boolean.FALSE.equals(request.enabled()) && Boolean.TRUE.equals(user.getEnabled());
         if (request.enabled() != null) {
             user.setEnabled(request.enabled());
         }
 
         CustomerUser updatedUser = userRepository.save(user);
+        userLookupCache.evictAfterCommit(previousUsername, updatedUser.getUsername());
+        Instant now = Instant.now();
+        eventPublisher.publishEvent(new UserUpdated(updatedUser.getId(), updatedUser.getUsername(), now));
+        if (disabled) {
+            eventPublisher.publishEvent(new UserAccessRevoked(user.getId(), previousUsername, now));
+        }
         return toUserResponse(updatedUser);
     }
 
+    /**
+     * Reemplaza el hash de la contraseña de un usuario por uno ya codificado con el algoritmo vigente.
+     */
+    @Transactional
+    public void upgradePassword(String username, String encodedPassword) {
+        userRepository.updatePassword(username, encodedPassword);
+        userLookupCache.evictAfterCommit(username);
+    }
+
+    /**
+     * Bloquea la cuenta hasta el instante dado, por ejemplo tras repetidos fallos de login.
+     */
+    @Transactional
+    public void lockAccount(String username, Instant lockedUntil) {
+        userRepository.lockUntil(username, lockedUntil);
+        userLookupCache.evictAfterCommit(username);
+    }
+
     /**
      * Elimina un usuario por su ID.
      */
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + id);
+        CustomerUser user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + id));
+        userRepository.delete(user);
+        userLookupCache.evictAfterCommit(user.getUsername());
+        Instant now = Instant.now();
+        eventPublisher.publishEvent(new UserDeleted(user.getId(), user.getUsername(), now));
+        eventPublisher.publishEvent(new UserAccessRevoked(user.getId(), user.getUsername(), now));
+    }
+
+    /**
+     * Referencia al rol por defecto a partir del ID cacheado en el índice de autoridades, sin consulta.
+     */
+    private Role defaultRole() {
+        Long roleId = roleAuthorityIndex.current().roleId(RoleName.ROLE_USER);
+        if (roleId != null) {
+            return entityManager.getReference(Role.class, roleId);
+        }
+        return roleRepository.findByName(RoleName.ROLE_USER)
+                .orElseThrow(() -> new ResourceNotFoundException("Rol no encontrado"));
+    }
+
+    /**
+     * Traduce la violación de una restricción única al mensaje de error correspondiente.
+     */
+    private static BadRequestException duplicateUser(DataIntegrityViolationException e) {
+        String detail = e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                ? violation.getConstraintName()
+                : String.valueOf(e.getMostSpecificCause().getMessage());
+        detail = detail.toLowerCase(Locale.ROOT);
+
+        boolean email = detail.contains(CustomerUser.EMAIL_CONSTRAINT)
+                || (!detail.contains(CustomerUser.USERNAME_CONSTRAINT) && detail.contains("email"));
+        return email
+                ? new BadRequestException("El email ya está registrado")
+                : new BadRequestException("El nombre de usuario ya está en uso");
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
         }
-        userRepository.deleteById(id);
+        return Math.min(size, maxPageSize);
     }
 
     /**
      * Convierte una entidad CustomerUser a un DTO de respuesta.
+     * Visible en el paquete para el benchmark de la ruta de perfil.
      */
-    private UserResponse toUserResponse(CustomerUser user) {
-        Set<String> roles = user.getRoles().stream()
-                .map(role -> role.getName().name())
+    UserResponse toUserResponse(CustomerUser user) {
+        Set<RoleName> roleNames = user.getRoles().stream()
+                .map(Role::getName)
                 .collect(Collectors.toSet());
+        return toUserResponse(user, roleNames);
+    }
 
-        Set<String> permissions = user.getRoles().stream()
-                .flatMap(role -> role.getPermissions().stream())
-                .map(permission -> permission.getName().name())
+    /**
+     * Variante con los roles ya conocidos, que no necesita inicializar las entidades Role.
+     */
+    private UserResponse toUserResponse(CustomerUser user, Set<RoleName> roleNames) {
+        Set<String> roles = roleNames.stream()
+                .map(RoleName::name)
                 .collect(Collectors.toSet());
 
+        int roleMask = 0;
+        for (RoleName roleName : roleNames) {
+            roleMask |= AuthoritySnapshot.bit(roleName);
+        }
+        Set<String> permissions = roleAuthorityIndex.current().permissionNames(roleMask);
+
         return new UserResponse(
                 user.getId(),
                 user.getUsername(),
@@ -0,0 +1,96 @@
+package com.prueba.login.user.internal.authority;
+
+import com.prueba.login.user.internal.model.PermissionName;
+import com.prueba.login.user.internal.model.RoleName;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catálogo de autoridades preconstruidas: una única instancia por cada RoleName y PermissionName.
+ * Permite decodificar el claim "roles" de un JWT sin consultar la base de datos.
+ */
+public final class Authorities {
+
+    private static final int MAX_DECODED_CLAIMS = 256;
+
+    private static final Map<RoleName, GrantedAuthority> ROLES = new EnumMap<>(RoleName.class);
+    private static final Map<PermissionName, GrantedAuthority> PERMISSIONS = new EnumMap<>(PermissionName.class);
+    private static final Map<String, GrantedAuthority> BY_NAME = new HashMap<>();
+    private static final Map<String, Set<GrantedAuthority>> DECODED_CLAIMS = new ConcurrentHashMap<>();
+
+    static {
+        for (RoleName role : RoleName.values()) {
+            GrantedAuthority authority = new SimpleGrantedAuthority(role.name());
+            ROLES.put(role, authority);
+            BY_NAME.put(role.name(), authority);
+        }
+        for (PermissionName permission : PermissionName.values()) {
+            GrantedAuthority authority = new SimpleGrantedAuthority(permission.name());
+            PERMISSIONS.put(permission, authority);
+            BY_NAME.put(permission.name(), authority);
+        }
+    }
+
+    private Authorities() {
+    }
+
+    /**
+     * Obtiene la autoridad compartida de un rol.
+     */
+    public static GrantedAuthority of(RoleName role) {
+        return ROLES.get(role);
+    }
+
+    /**
+     * Obtiene la autoridad compartida de un permiso.
+     */
+    public static GrantedAuthority of(PermissionName permission) {
+        return PERMISSIONS.get(permission);
+    }
+
+    /**
+     * Decodifica un claim "roles" separado por comas en un conjunto inmutable de autoridades.
+     * Los nombres desconocidos se ignoran y los conjuntos resultantes se reutilizan entre peticiones.
+     */
+    public static Set<GrantedAuthority> fromClaim(String claim) {
+        if (claim == null || claim.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Set<GrantedAuthority> authorities = DECODED_CLAIMS.get(claim);
+        if (authorities != null) {
+            return authorities;
+        }
+
+        authorities = decode(claim);
+        if (DECODED_CLAIMS.size() < MAX_DECODED_CLAIMS) {
+            DECODED_CLAIMS.putIfAbsent(claim, authorities);
+        }
+        return authorities;
+    }
+
+    private static Set<GrantedAuthority> decode(String claim) {
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        int start = 0;
+        while (start <= claim.length()) {
+            int end = claim.indexOf(',', start);
+            if (end < 0) {
+                end = claim.length();
+            }
+            GrantedAuthority authority = BY_NAME.get(claim.substring(start, end).trim());
+            if (authority != null) {
+                authorities.add(authority);
+            }
+            start = end + 1;
+        }
+        return Collections.unmodifiableSet(authorities);
+    }
+}
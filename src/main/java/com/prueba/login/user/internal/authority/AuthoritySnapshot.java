@@ -0,0 +1,98 @@
+package com.prueba.login.user.internal.authority;
+
+import com.prueba.login.user.internal.model.PermissionName;
+import com.prueba.login.user.internal.model.RoleName;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vista inmutable del grafo rol → permisos.
+ * Precalcula las autoridades de cada combinación de roles, indexadas por máscara de bits de RoleName.
+ */
+public final class AuthoritySnapshot {
+
+    private static final RoleName[] ROLES = RoleName.values();
+
+    static final AuthoritySnapshot EMPTY = new AuthoritySnapshot(new EnumMap<>(RoleName.class),
+            new EnumMap<>(RoleName.class), false);
+
+    private final List<Set<GrantedAuthority>> authoritiesByMask;
+    private final List<Set<String>> permissionNamesByMask;
+    private final Map<RoleName, Long> roleIds;
+    private final boolean loaded;
+
+    AuthoritySnapshot(Map<RoleName, EnumSet<PermissionName>> permissionsByRole,
+                      EnumMap<RoleName, Long> roleIds,
+                      boolean loaded) {
+        int combinations = 1 << ROLES.length;
+        List<Set<GrantedAuthority>> authorities = new ArrayList<>(combinations);
+        List<Set<String>> permissionNames = new ArrayList<>(combinations);
+
+        for (int mask = 0; mask < combinations; mask++) {
+            Set<GrantedAuthority> maskAuthorities = new LinkedHashSet<>();
+            EnumSet<PermissionName> maskPermissions = EnumSet.noneOf(PermissionName.class);
+            for (RoleName role : ROLES) {
+                if ((mask & bit(role)) != 0) {
+                    maskAuthorities.add(Authorities.of(role));
+                    maskPermissions.addAll(permissionsByRole.getOrDefault(role, EnumSet.noneOf(PermissionName.class)));
+                }
+            }
+
+            Set<String> maskPermissionNames = new LinkedHashSet<>();
+            for (PermissionName permission : maskPermissions) {
+                maskAuthorities.add(Authorities.of(permission));
+                maskPermissionNames.add(permission.name());
+            }
+            authorities.add(Collections.unmodifiableSet(maskAuthorities));
+            permissionNames.add(Collections.unmodifiableSet(maskPermissionNames));
+        }
+
+        this.authoritiesByMask = List.copyOf(authorities);
+        this.permissionNamesByMask = List.copyOf(permissionNames);
+        this.roleIds = Collections.unmodifiableMap(new EnumMap<>(roleIds));
+        this.loaded = loaded;
+    }
+
+    /**
+     * Bit que representa al rol dentro de una máscara de roles.
+     */
+    public static int bit(RoleName role) {
+        return 1 << role.ordinal();
+    }
+
+    /**
+     * Indica si el índice ya se cargó desde la base de datos.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Autoridades (roles y permisos) de la combinación de roles dada.
+     */
+    public Set<GrantedAuthority> authorities(int roleMask) {
+        return authoritiesByMask.get(roleMask);
+    }
+
+    /**
+     * Nombres de los permisos de la combinación de roles dada.
+     */
+    public Set<String> permissionNames(int roleMask) {
+        return permissionNamesByMask.get(roleMask);
+    }
+
+    /**
+     * ID persistido del rol, o null si no existe.
+     */
+    public Long roleId(RoleName role) {
+        return roleIds.get(role);
+    }
+}
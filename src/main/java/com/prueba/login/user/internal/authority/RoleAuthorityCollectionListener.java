@@ -0,0 +1,61 @@
+package com.prueba.login.user.internal.authority;
+
+import com.prueba.login.user.internal.model.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconstruye el índice de autoridades cuando cambian los permisos de un rol. Añadir o quitar
+ * filas de role_permissions solo modifica la colección, no la entidad Role, así que no dispara
+ * el @PostUpdate de RoleAuthorityIndexListener; Hibernate sí publica eventos de colección.
+ */
+@Component
+@ApplicationModule
+class RoleAuthorityCollectionListener implements PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private final RoleAuthorityIndex roleAuthorityIndex;
+
+    RoleAuthorityCollectionListener(EntityManagerFactory entityManagerFactory,
+                                    RoleAuthorityIndex roleAuthorityIndex) {
+        this.roleAuthorityIndex = roleAuthorityIndex;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onChange(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onChange(event);
+    }
+
+    private void onChange(AbstractCollectionEvent event) {
+        if (event.getAffectedOwnerOrNull() instanceof Role) {
+            RoleAuthorityIndexListener.rebuildAfterCommit(roleAuthorityIndex);
+        }
+    }
+}
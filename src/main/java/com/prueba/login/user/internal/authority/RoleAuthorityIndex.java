@@ -0,0 +1,91 @@
+package com.prueba.login.user.internal.authority;
+
+import com.prueba.login.user.internal.model.CustomerUser;
+import com.prueba.login.user.internal.model.Permission;
+import com.prueba.login.user.internal.model.PermissionName;
+import com.prueba.login.user.internal.model.Role;
+import com.prueba.login.user.internal.model.RoleName;
+import com.prueba.login.user.internal.repository.RoleRepository;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.modulith.ApplicationModule;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice en memoria rol → autoridades, cargado al arrancar y reemplazado atómicamente
+ * cada vez que se modifican roles o permisos (RoleAuthorityIndexListener para las entidades,
+ * RoleAuthorityCollectionListener para la tabla role_permissions).
+ */
+@Component
+@ApplicationModule
+public class RoleAuthorityIndex {
+
+    private volatile AuthoritySnapshot current = AuthoritySnapshot.EMPTY;
+
+    private final RoleRepository roleRepository;
+
+    public RoleAuthorityIndex(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    /**
+     * Obtiene la vista vigente del índice.
+     */
+    public AuthoritySnapshot current() {
+        return current;
+    }
+
+    /**
+     * Autoridades del usuario según sus roles, que son lo único que necesita cargado: sirve para
+     * usuarios desconectados de la sesión, como los de la caché de búsquedas. Si el índice aún no se
+     * cargó (antes de que termine el arranque del contexto), lo carga en ese momento.
+     */
+    public Set<GrantedAuthority> authoritiesOf(CustomerUser user) {
+        AuthoritySnapshot snapshot = current;
+        if (!snapshot.isLoaded()) {
+            rebuild();
+            snapshot = current;
+        }
+        return snapshot.authorities(roleMask(user.getRoles()));
+    }
+
+    /**
+     * Calcula la máscara de bits de un conjunto de roles.
+     */
+    public static int roleMask(Iterable<Role> roles) {
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= AuthoritySnapshot.bit(role.getName());
+        }
+        return mask;
+    }
+
+    /**
+     * Reconstruye el índice desde la base de datos y lo publica.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public void rebuild() {
+        Map<RoleName, EnumSet<PermissionName>> permissionsByRole = new EnumMap<>(RoleName.class);
+        EnumMap<RoleName, Long> roleIds = new EnumMap<>(RoleName.class);
+
+        for (Role role : roleRepository.findAllWithPermissions()) {
+            EnumSet<PermissionName> permissions = EnumSet.noneOf(PermissionName.class);
+            for (Permission permission : role.getPermissions()) {
+                permissions.add(permission.getName());
+            }
+            permissionsByRole.put(role.getName(), permissions);
+            roleIds.put(role.getName(), role.getId());
+        }
+
+        current = new AuthoritySnapshot(permissionsByRole, roleIds, true);
+    }
+}
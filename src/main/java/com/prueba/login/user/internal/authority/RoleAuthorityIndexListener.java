@@ -0,0 +1,56 @@
+package com.prueba.login.user.internal.authority;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA de Role y Permission que reconstruye el índice de autoridades
+ * una vez confirmada la transacción que los modificó.
+ */
+public class RoleAuthorityIndexListener {
+
+    private final ObjectProvider<RoleAuthorityIndex> roleAuthorityIndex;
+
+    public RoleAuthorityIndexListener(ObjectProvider<RoleAuthorityIndex> roleAuthorityIndex) {
+        this.roleAuthorityIndex = roleAuthorityIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        roleAuthorityIndex.ifAvailable(RoleAuthorityIndexListener::rebuildAfterCommit);
+    }
+
+    /**
+     * Programa la reconstrucción para cuando se confirme la transacción en curso, una sola vez
+     * aunque la transacción modifique varios roles o permisos; sin transacción, reconstruye ya.
+     * Recibe el bean (proxy) para que la reconstrucción abra su propia transacción.
+     */
+    static void rebuildAfterCommit(RoleAuthorityIndex roleAuthorityIndex) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            roleAuthorityIndex.rebuild();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(roleAuthorityIndex)) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(roleAuthorityIndex, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                roleAuthorityIndex.rebuild();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(roleAuthorityIndex);
+            }
+        });
+    }
+}
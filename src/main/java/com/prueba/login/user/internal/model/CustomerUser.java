@@ -1,22 +1,29 @@
 package com.prueba.login.user.internal.model;
 
+import com.prueba.login.user.internal.authority.Authorities;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Entidad que representa a un usuario del sistema.
  * Implementa UserDetails para integración con Spring Security.
  */
 @Entity
-@Table(name = "users")
+@Table(
+    name = "users",
+    uniqueConstraints = {
+        @UniqueConstraint(name = CustomerUser.USERNAME_CONSTRAINT, columnNames = "username"),
+        @UniqueConstraint(name = CustomerUser.EMAIL_CONSTRAINT, columnNames = "email"),
+        @UniqueConstraint(name = CustomerUser.PROVIDER_CONSTRAINT, columnNames = {"auth_provider", "provider_id"})
+    }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,14 +31,18 @@ import java.util.stream.Collectors;
 @Builder
 public class CustomerUser implements UserDetails {
 
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    public static final String PROVIDER_CONSTRAINT = "uk_users_provider";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 50)
+    @Column(nullable = false, length = 50)
     private String username;
 
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
 
     @Column(nullable = false)
@@ -41,7 +52,7 @@ public class CustomerUser implements UserDetails {
     @Builder.Default
     private Boolean enabled = true;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id"),
@@ -58,12 +69,23 @@ public class CustomerUser implements UserDetails {
     @Column(name = "provider_id")
     private String providerId;
 
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    /**
+     * Recorre los roles y sus permisos, que deben estar cargados. Para usuarios cargados solo con
+     * sus roles (la caché de búsquedas) se usa RoleAuthorityIndex.authoritiesOf.
+     */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return roles.stream()
-                .flatMap(role -> role.getPermissions().stream())
-                .map(permission -> new SimpleGrantedAuthority(permission.getName().name()))
-                .collect(Collectors.toSet());
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        for (Role role : roles) {
+            authorities.add(Authorities.of(role.getName()));
+            for (Permission permission : role.getPermissions()) {
+                authorities.add(Authorities.of(permission.getName()));
+            }
+        }
+        return authorities;
     }
 
     @Override
@@ -73,11 +95,16 @@ public class CustomerUser implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return lockedUntil == null || !lockedUntil.isAfter(Instant.now());
     }
 
     @Override
     public boolean isCredentialsNonExpired() {
         return true;
     }
+
+    @Override
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(enabled);
+    }
 }
@@ -1,5 +1,6 @@
 package com.prueba.login.user.internal.model;
 
+import com.prueba.login.user.internal.authority.RoleAuthorityIndexListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -7,6 +8,7 @@ import lombok.*;
  * Entidad que representa un permiso dentro del sistema de seguridad.
  */
 @Entity
+@EntityListeners(RoleAuthorityIndexListener.class)
 @Table(name = "permissions")
 @Getter
 @Setter
@@ -1,5 +1,6 @@
 package com.prueba.login.user.internal.model;
 
+import com.prueba.login.user.internal.authority.RoleAuthorityIndexListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.util.HashSet;
@@ -9,6 +10,7 @@ import java.util.Set;
  * Entidad que representa un rol dentro del sistema de seguridad.
  */
 @Entity
+@EntityListeners(RoleAuthorityIndexListener.class)
 @Table(name = "roles")
 @Getter
 @Setter
@@ -25,7 +27,7 @@ public class Role {
     @Enumerated(EnumType.STRING)
     private RoleName name;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "role_permissions",
         joinColumns = @JoinColumn(name = "role_id"),
@@ -3,8 +3,10 @@ package com.prueba.login.user.internal.repository;
 import com.prueba.login.user.internal.model.Role;
 import com.prueba.login.user.internal.model.RoleName;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,4 +24,10 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
      * Verifica si existe un rol con el nombre dado.
      */
     boolean existsByName(RoleName name);
+
+    /**
+     * Obtiene todos los roles incluyendo sus permisos.
+     */
+    @Query("SELECT DISTINCT r FROM Role r LEFT JOIN FETCH r.permissions")
+    List<Role> findAllWithPermissions();
 }
@@ -1,12 +1,23 @@
 package com.prueba.login.user.internal.repository;
 
+import com.prueba.login.user.internal.model.AuthProvider;
 import com.prueba.login.user.internal.model.CustomerUser;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para operaciones de persistencia de usuarios.
@@ -34,6 +45,25 @@ public interface UserRepository extends JpaRepository<CustomerUser, Long> {
      */
     boolean existsByEmail(String email);
 
+    /**
+     * Devuelve, de entre los nombres dados, los que ya están registrados.
+     */
+    @Query("SELECT u.username FROM CustomerUser u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Devuelve, de entre los emails dados, los que ya están registrados.
+     */
+    @Query("SELECT u.email FROM CustomerUser u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Busca un usuario por nombre de usuario incluyendo sus roles.
+     * Los permisos se resuelven desde el índice de autoridades.
+     */
+    @Query("SELECT u FROM CustomerUser u LEFT JOIN FETCH u.roles WHERE u.username = :username")
+    Optional<CustomerUser> findByUsernameWithRoles(@Param("username") String username);
+
     /**
      * Busca un usuario por nombre de usuario incluyendo sus roles y permisos.
      */
@@ -45,4 +75,56 @@ public interface UserRepository extends JpaRepository<CustomerUser, Long> {
      */
     @Query("SELECT u FROM CustomerUser u LEFT JOIN FETCH u.roles r LEFT JOIN FETCH r.permissions WHERE u.email = :email")
     Optional<CustomerUser> findByEmailWithRolesAndPermissions(@Param("email") String email);
+
+    /**
+     * Busca un usuario por su cuenta en un proveedor OAuth2 incluyendo sus roles.
+     */
+    @Query("SELECT u FROM CustomerUser u LEFT JOIN FETCH u.roles "
+            + "WHERE u.authProvider = :provider AND u.providerId = :providerId")
+    Optional<CustomerUser> findByProviderWithRoles(@Param("provider") AuthProvider provider,
+                                                   @Param("providerId") String providerId);
+
+    /**
+     * Busca un usuario por ID incluyendo sus roles en una sola consulta.
+     */
+    @EntityGraph(attributePaths = "roles")
+    Optional<CustomerUser> findWithRolesById(Long id);
+
+    /**
+     * Obtiene los IDs de la siguiente página de usuarios con ID mayor al cursor (paginación keyset).
+     */
+    @Query("SELECT u.id FROM CustomerUser u WHERE u.id > :after ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Busca los usuarios con los IDs dados incluyendo sus roles, ordenados por ID.
+     */
+    @EntityGraph(attributePaths = "roles")
+    List<CustomerUser> findWithRolesByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * Recorre todos los usuarios ordenados por ID, con sus roles, sin materializarlos en memoria.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar. En MySQL el fetch size solo se
+     * respeta con useCursorFetch=true en el driver (perfil prod); sin él se carga el resultado completo.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM CustomerUser u LEFT JOIN FETCH u.roles ORDER BY u.id")
+    Stream<CustomerUser> streamAllOrderedById();
+
+    /**
+     * Actualiza el hash de la contraseña de un usuario.
+     */
+    @Modifying
+    @Query("UPDATE CustomerUser u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * Bloquea la cuenta hasta el instante dado.
+     */
+    @Modifying
+    @Query("UPDATE CustomerUser u SET u.lockedUntil = :lockedUntil WHERE u.username = :username")
+    int lockUntil(@Param("username") String username, @Param("lockedUntil") Instant lockedUntil);
 }
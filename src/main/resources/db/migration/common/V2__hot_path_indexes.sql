@@ -0,0 +1,12 @@
+-- Índices para las rutas de acceso más frecuentes.
+--
+-- Las claves primarias de las tablas de unión empiezan por role_id y permission_id, pero la carga de un
+-- usuario con sus roles y permisos (findByUsernameWithRoles, findBy{Username,Email}WithRolesAndPermissions,
+-- findWithRolesById) recorre user_roles por user_id y role_permissions por role_id. Estos índices
+-- cubren ambas uniones sin leer la tabla.
+--
+-- Las búsquedas y comprobaciones de existencia por username, email y (auth_provider, provider_id) ya
+-- usan los índices únicos de users (uk_users_username, uk_users_email y uk_users_provider desde V4 y V5),
+-- que incluyen el id.
+CREATE INDEX idx_user_roles_user_id_role_id ON user_roles (user_id, role_id);
+CREATE INDEX idx_role_permissions_role_id_permission_id ON role_permissions (role_id, permission_id);
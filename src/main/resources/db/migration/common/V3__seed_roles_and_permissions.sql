@@ -0,0 +1,23 @@
+-- Roles y permisos de RoleName y PermissionName. Las inserciones son idempotentes para las bases
+-- existentes en las que ya se hubieran creado a mano.
+
+INSERT INTO permissions (name) SELECT 'READ_USERS' FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM permissions WHERE name = 'READ_USERS');
+INSERT INTO permissions (name) SELECT 'WRITE_USERS' FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM permissions WHERE name = 'WRITE_USERS');
+INSERT INTO permissions (name) SELECT 'DELETE_USERS' FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM permissions WHERE name = 'DELETE_USERS');
+INSERT INTO permissions (name) SELECT 'READ_ROLES' FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM permissions WHERE name = 'READ_ROLES');
+INSERT INTO permissions (name) SELECT 'WRITE_ROLES' FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM permissions WHERE name = 'WRITE_ROLES');
+INSERT INTO permissions (name) SELECT 'READ_PERMISSIONS' FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM permissions WHERE name = 'READ_PERMISSIONS');
+INSERT INTO permissions (name) SELECT 'ADMIN_ACCESS' FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM permissions WHERE name = 'ADMIN_ACCESS');
+
+INSERT INTO roles (name) SELECT 'ROLE_USER' FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM roles WHERE name = 'ROLE_USER');
+INSERT INTO roles (name) SELECT 'ROLE_ADMIN' FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM roles WHERE name = 'ROLE_ADMIN');
+INSERT INTO roles (name) SELECT 'ROLE_MODERATOR' FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM roles WHERE name = 'ROLE_MODERATOR');
+
+-- ROLE_USER gestiona usuarios, ROLE_MODERATOR además consulta roles y permisos, ROLE_ADMIN tiene todos.
+INSERT INTO role_permissions (role_id, permission_id)
+SELECT r.id, p.id
+FROM roles r CROSS JOIN permissions p
+WHERE (r.name = 'ROLE_ADMIN'
+       OR (r.name = 'ROLE_MODERATOR' AND p.name IN ('READ_USERS', 'WRITE_USERS', 'READ_ROLES', 'READ_PERMISSIONS'))
+       OR (r.name = 'ROLE_USER' AND p.name IN ('READ_USERS', 'WRITE_USERS')))
+  AND NOT EXISTS (SELECT 1 FROM role_permissions rp WHERE rp.role_id = r.id AND rp.permission_id = p.id);
@@ -0,0 +1,6 @@
+-- Sustituye los nombres generados por Hibernate por los que declaran las entidades: el alta de
+-- usuarios distingue por el nombre de la restricción si el duplicado es el username o el email.
+ALTER TABLE permissions RENAME CONSTRAINT UKpnvtwliis6p05pn6i3ndjrqt2 TO uk_permissions_name;
+ALTER TABLE roles RENAME CONSTRAINT UKofx66keruapi6vyqpv6f2or37 TO uk_roles_name;
+ALTER TABLE users RENAME CONSTRAINT UKr43af9ap4edm43mmtq01oddj6 TO uk_users_username;
+ALTER TABLE users RENAME CONSTRAINT UK6dotkott2kjsp8vw4d0m25fb7 TO uk_users_email;
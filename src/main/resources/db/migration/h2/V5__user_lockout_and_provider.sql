@@ -0,0 +1,4 @@
+-- Bloqueo temporal tras fallos de login y unicidad de la cuenta de cada proveedor OAuth2.
+-- Las cuentas locales tienen provider_id nulo, que no cuenta para la restricción.
+ALTER TABLE users ADD COLUMN locked_until TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE users ADD CONSTRAINT uk_users_provider UNIQUE (auth_provider, provider_id);
@@ -0,0 +1,27 @@
+-- Refresh tokens persistidos y revocaciones de access tokens, por token y por usuario.
+
+CREATE TABLE refresh_tokens (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token_hash BINARY(32) NOT NULL,
+    user_id    BIGINT     NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked    BOOLEAN    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash)
+);
+CREATE INDEX idx_refresh_tokens_user_id ON refresh_tokens (user_id);
+-- limpieza periódica de los expirados (RefreshTokenRepository.deleteExpired)
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+CREATE TABLE revoked_tokens (
+    token_id   VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (token_id)
+);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+
+CREATE TABLE user_token_revocations (
+    user_id        BIGINT NOT NULL,
+    revoked_before TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (user_id)
+);
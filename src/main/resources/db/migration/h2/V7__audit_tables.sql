@@ -0,0 +1,19 @@
+-- Registro de auditoría y último login correcto de cada usuario.
+
+CREATE TABLE audit_events (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    event_type     ENUM ('LOGIN_FAILED','LOGIN_SUCCEEDED','USER_DELETED','USER_REGISTERED','USER_UPDATED') NOT NULL,
+    user_id        BIGINT,
+    username       VARCHAR(50),
+    client_address VARCHAR(45),
+    occurred_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_audit_events_user_id_occurred_at ON audit_events (user_id, occurred_at);
+
+CREATE TABLE last_logins (
+    user_id        BIGINT NOT NULL,
+    last_login_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    client_address VARCHAR(45),
+    PRIMARY KEY (user_id)
+);
@@ -0,0 +1,46 @@
+-- Esquema original de la aplicación, tal como lo creaba Hibernate con ddl-auto: update, incluidos los
+-- nombres de sus restricciones. Las bases existentes se marcan con la versión 0 y también ejecutan
+-- esta migración, que no toca las tablas que ya existen.
+
+CREATE TABLE IF NOT EXISTS permissions (
+    id   BIGINT NOT NULL AUTO_INCREMENT,
+    name ENUM ('ADMIN_ACCESS','DELETE_USERS','READ_PERMISSIONS','READ_ROLES','READ_USERS','WRITE_ROLES','WRITE_USERS') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UKpnvtwliis6p05pn6i3ndjrqt2 UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS roles (
+    id   BIGINT NOT NULL AUTO_INCREMENT,
+    name ENUM ('ROLE_ADMIN','ROLE_MODERATOR','ROLE_USER') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UKofx66keruapi6vyqpv6f2or37 UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS role_permissions (
+    permission_id BIGINT NOT NULL,
+    role_id       BIGINT NOT NULL,
+    PRIMARY KEY (permission_id, role_id),
+    CONSTRAINT FKegdk29eiy7mdtefy5c7eirr6e FOREIGN KEY (permission_id) REFERENCES permissions (id),
+    CONSTRAINT FKn5fotdgk8d1xvo8nav9uv3muc FOREIGN KEY (role_id) REFERENCES roles (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS users (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    username      VARCHAR(50)  NOT NULL,
+    email         VARCHAR(100) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    enabled       BIT          NOT NULL,
+    auth_provider ENUM ('FACEBOOK','GITHUB','GOOGLE','LOCAL'),
+    provider_id   VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT UKr43af9ap4edm43mmtq01oddj6 UNIQUE (username),
+    CONSTRAINT UK6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    role_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (role_id, user_id),
+    CONSTRAINT FKh8ciramu9cc9q3qcqiv4ue8a6 FOREIGN KEY (role_id) REFERENCES roles (id),
+    CONSTRAINT FKhfh9dx7w3ubf1co1vdev94g3f FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,15 @@
+-- Sustituye los nombres generados por Hibernate por los que declaran las entidades: el alta de
+-- usuarios distingue por el nombre de la restricción si el duplicado es el username o el email.
+-- Se crea la restricción nueva antes de quitar la anterior para no dejar la columna sin unicidad
+-- (DROP CONSTRAINT requiere MySQL 8.0.19).
+ALTER TABLE permissions ADD CONSTRAINT uk_permissions_name UNIQUE (name);
+ALTER TABLE permissions DROP CONSTRAINT UKpnvtwliis6p05pn6i3ndjrqt2;
+
+ALTER TABLE roles ADD CONSTRAINT uk_roles_name UNIQUE (name);
+ALTER TABLE roles DROP CONSTRAINT UKofx66keruapi6vyqpv6f2or37;
+
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
+ALTER TABLE users DROP CONSTRAINT UKr43af9ap4edm43mmtq01oddj6;
+
+ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email);
+ALTER TABLE users DROP CONSTRAINT UK6dotkott2kjsp8vw4d0m25fb7;
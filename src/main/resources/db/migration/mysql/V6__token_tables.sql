@@ -0,0 +1,27 @@
+-- Refresh tokens persistidos y revocaciones de access tokens, por token y por usuario.
+
+CREATE TABLE refresh_tokens (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    token_hash BINARY(32)  NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked    BIT         NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    INDEX idx_refresh_tokens_user_id (user_id),
+    -- limpieza periódica de los expirados (RefreshTokenRepository.deleteExpired)
+    INDEX idx_refresh_tokens_expires_at (expires_at)
+) ENGINE = InnoDB;
+
+CREATE TABLE revoked_tokens (
+    token_id   VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (token_id),
+    INDEX idx_revoked_tokens_expires_at (expires_at)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_token_revocations (
+    user_id        BIGINT      NOT NULL,
+    revoked_before DATETIME(6) NOT NULL,
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
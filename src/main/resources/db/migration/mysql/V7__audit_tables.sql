@@ -0,0 +1,19 @@
+-- Registro de auditoría y último login correcto de cada usuario.
+
+CREATE TABLE audit_events (
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    event_type     ENUM ('LOGIN_FAILED','LOGIN_SUCCEEDED','USER_DELETED','USER_REGISTERED','USER_UPDATED') NOT NULL,
+    user_id        BIGINT,
+    username       VARCHAR(50),
+    client_address VARCHAR(45),
+    occurred_at    DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_audit_events_user_id_occurred_at (user_id, occurred_at)
+) ENGINE = InnoDB;
+
+CREATE TABLE last_logins (
+    user_id        BIGINT      NOT NULL,
+    last_login_at  DATETIME(6) NOT NULL,
+    client_address VARCHAR(45),
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
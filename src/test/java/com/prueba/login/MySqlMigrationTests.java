@@ -0,0 +1,99 @@
+package com.prueba.login;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ejecuta las migraciones de MySQL sobre H2 en modo MySQL: sobre una base vacía y sobre el esquema
+ * que creaba Hibernate con ddl-auto: update, que se marca como V0 y recibe todas las migraciones.
+ */
+class MySqlMigrationTests {
+
+    /**
+     * DDL que generaba Hibernate 6 con MySQLDialect para las entidades originales.
+     */
+    private static final List<String> DDL_AUTO_SCHEMA = List.of(
+            "create table permissions (id bigint not null auto_increment, name enum ('ADMIN_ACCESS','DELETE_USERS','READ_PERMISSIONS','READ_ROLES','READ_USERS','WRITE_ROLES','WRITE_USERS') not null, primary key (id)) engine=InnoDB",
+            "create table role_permissions (permission_id bigint not null, role_id bigint not null, primary key (permission_id, role_id)) engine=InnoDB",
+            "create table roles (id bigint not null auto_increment, name enum ('ROLE_ADMIN','ROLE_MODERATOR','ROLE_USER') not null, primary key (id)) engine=InnoDB",
+            "create table user_roles (role_id bigint not null, user_id bigint not null, primary key (role_id, user_id)) engine=InnoDB",
+            "create table users (enabled bit not null, id bigint not null auto_increment, username varchar(50) not null, email varchar(100) not null, password varchar(255) not null, provider_id varchar(255), auth_provider enum ('FACEBOOK','GITHUB','GOOGLE','LOCAL'), primary key (id)) engine=InnoDB",
+            "alter table permissions add constraint UKpnvtwliis6p05pn6i3ndjrqt2 unique (name)",
+            "alter table roles add constraint UKofx66keruapi6vyqpv6f2or37 unique (name)",
+            "alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username)",
+            "alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email)",
+            "alter table role_permissions add constraint FKegdk29eiy7mdtefy5c7eirr6e foreign key (permission_id) references permissions (id)",
+            "alter table role_permissions add constraint FKn5fotdgk8d1xvo8nav9uv3muc foreign key (role_id) references roles (id)",
+            "alter table user_roles add constraint FKh8ciramu9cc9q3qcqiv4ue8a6 foreign key (role_id) references roles (id)",
+            "alter table user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users (id)");
+
+    @Test
+    void migratesAnEmptyDatabase() {
+        DataSource dataSource = mysqlMode("mysql-empty");
+
+        flyway(dataSource).migrate();
+
+        assertSchema(new JdbcTemplate(dataSource));
+    }
+
+    @Test
+    void upgradesADatabaseCreatedByDdlAuto() {
+        DataSource dataSource = mysqlMode("mysql-ddl-auto");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        DDL_AUTO_SCHEMA.forEach(jdbcTemplate::execute);
+        jdbcTemplate.update("INSERT INTO roles (name) VALUES ('ROLE_USER')");
+        jdbcTemplate.update("INSERT INTO users (enabled, username, email, password, auth_provider) "
+                + "VALUES (1, 'existing', 'existing@example.com', '{noop}secret', 'LOCAL')");
+        jdbcTemplate.update("INSERT INTO user_roles (role_id, user_id) SELECT r.id, u.id FROM roles r, users u");
+
+        flyway(dataSource).migrate();
+
+        assertSchema(jdbcTemplate);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users u JOIN user_roles ur ON ur.user_id = u.id WHERE u.username = 'existing'",
+                Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM roles WHERE name = 'ROLE_USER'", Integer.class)).isEqualTo(1);
+    }
+
+    private static void assertSchema(JdbcTemplate jdbcTemplate) {
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT LOWER(TABLE_NAME) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'public'", String.class);
+        List<String> usersConstraints = jdbcTemplate.queryForList(
+                "SELECT LOWER(CONSTRAINT_NAME) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+                        + "WHERE LOWER(TABLE_NAME) = 'users' AND CONSTRAINT_TYPE = 'UNIQUE'", String.class);
+        List<String> usersColumns = jdbcTemplate.queryForList(
+                "SELECT LOWER(COLUMN_NAME) FROM INFORMATION_SCHEMA.COLUMNS WHERE LOWER(TABLE_NAME) = 'users'",
+                String.class);
+
+        assertThat(tables).contains("users", "roles", "permissions", "user_roles", "role_permissions",
+                "refresh_tokens", "revoked_tokens", "user_token_revocations", "audit_events", "last_logins",
+                "event_publication");
+        assertThat(usersConstraints).containsExactlyInAnyOrder(
+                "uk_users_username", "uk_users_email", "uk_users_provider");
+        assertThat(usersColumns).contains("locked_until");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM roles", Integer.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM permissions", Integer.class)).isEqualTo(7);
+    }
+
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/mysql")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+    }
+
+    private static DataSource mysqlMode(String name) {
+        return new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,140 @@
+package com.prueba.login;
+
+import com.prueba.login.authentication.api.dto.request.RefreshTokenRequest;
+import com.prueba.login.authentication.application.AuthenticationService;
+import com.prueba.login.authentication.internal.security.JwtPrincipal;
+import com.prueba.login.authentication.internal.token.RefreshTokenStore;
+import com.prueba.login.authentication.internal.token.TokenRevocationRegistry;
+import com.prueba.login.user.api.dto.request.CreateUserRequest;
+import com.prueba.login.user.api.dto.response.UserResponse;
+import com.prueba.login.user.application.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Enrutado de lecturas a la réplica con dos bases H2 independientes: lo que solo existe en la réplica
+ * es visible para las lecturas, lo escrito solo llega al primario y las búsquedas que llenan la caché
+ * de usuarios, la rotación de refresh tokens y la recarga de revocaciones leen del primario.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.datasource.replica.username=sa"
+})
+class ReadReplicaRoutingTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Test
+    void readOnlyLookupsAreServedByTheReplica() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.update("INSERT INTO users (username, email, password, enabled, auth_provider) "
+                + "VALUES ('replica-only', 'replica-only@example.com', '{noop}secret', TRUE, 'LOCAL')");
+        Long id = replica.queryForObject("SELECT id FROM users WHERE username = 'replica-only'", Long.class);
+
+        assertThat(userService.getUserById(id).username()).isEqualTo("replica-only");
+        assertThat(countUsers(primaryDataSource, "replica-only")).isZero();
+    }
+
+    @Test
+    void cachedLookupsAreServedByThePrimary() {
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        primary.update("INSERT INTO users (username, email, password, enabled, auth_provider) "
+                + "VALUES ('not-replicated', 'not-replicated@example.com', '{noop}secret', TRUE, 'LOCAL')");
+        Long id = primary.queryForObject("SELECT id FROM users WHERE username = 'not-replicated'", Long.class);
+
+        assertThat(countUsers(replicaDataSource, "not-replicated")).isZero();
+        assertThat(userDetailsService.loadUserByUsername("not-replicated").getPassword()).isEqualTo("{noop}secret");
+        assertThat(userService.getUserByUsername("not-replicated").id()).isEqualTo(id);
+    }
+
+    @Test
+    void refreshAndRevocationReadsAreServedByThePrimary() {
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        primary.update("INSERT INTO users (username, email, password, enabled, auth_provider) "
+                + "VALUES ('refreshing', 'refreshing@example.com', '{noop}secret', TRUE, 'LOCAL')");
+        Long id = primary.queryForObject("SELECT id FROM users WHERE username = 'refreshing'", Long.class);
+        String refreshToken = refreshTokenStore.issue(id);
+        refreshTokenStore.flush();
+
+        assertThat(authenticationService.refresh(new RefreshTokenRequest(refreshToken)).refreshToken()).isNotBlank();
+
+        Instant revokedBefore = Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.SECONDS);
+        primary.update("INSERT INTO user_token_revocations (user_id, revoked_before) VALUES (?, ?)",
+                id, Timestamp.from(revokedBefore));
+        tokenRevocationRegistry.reload();
+
+        assertThat(tokenRevocationRegistry.isRevoked(new JwtPrincipal("jti", "refreshing", id, "ROLE_USER",
+                Instant.now(), Instant.now().plusSeconds(900)))).isTrue();
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        UserResponse created = userService.createUser(
+                new CreateUserRequest("primary-only", "primary-only@example.com", "password123"));
+
+        assertThat(created.id()).isNotNull();
+        assertThat(countUsers(primaryDataSource, "primary-only")).isEqualTo(1);
+        assertThat(countUsers(replicaDataSource, "primary-only")).isZero();
+    }
+
+    private static int countUsers(DataSource dataSource, String username) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, username);
+    }
+
+    /**
+     * Copia a la réplica el esquema que Hibernate creó en el primario, antes de que arranquen las
+     * lecturas de inicio (índice de roles, revocaciones), que ya se sirven desde la réplica.
+     */
+    @TestConfiguration
+    static class ReplicaSchemaConfig {
+
+        @Bean
+        Object replicaSchema(EntityManagerFactory entityManagerFactory,
+                             @Qualifier("primaryDataSource") DataSource primaryDataSource,
+                             @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+            JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+            new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class).stream()
+                    .filter(statement -> !statement.startsWith("CREATE USER"))
+                    .forEach(replica::execute);
+            return new Object();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.prueba.login;
+
+import com.prueba.login.user.internal.model.Permission;
+import com.prueba.login.user.internal.model.PermissionName;
+import com.prueba.login.user.internal.model.Role;
+import com.prueba.login.user.internal.model.RoleName;
+import com.prueba.login.user.internal.repository.RoleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Arranca sobre el esquema creado por las migraciones de Flyway con ddl-auto: validate, de modo que
+ * cualquier diferencia entre las migraciones y las entidades hace fallar el arranque.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.sql.init.mode=never",
+        "spring.modulith.events.jdbc.schema-initialization.enabled=false"
+})
+class SchemaMigrationTests {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void seedsEveryRoleWithItsPermissions() {
+        Map<RoleName, EnumSet<PermissionName>> permissions = roleRepository.findAllWithPermissions().stream()
+                .collect(Collectors.toMap(Role::getName, role -> role.getPermissions().stream()
+                        .map(Permission::getName)
+                        .collect(Collectors.toCollection(() -> EnumSet.noneOf(PermissionName.class)))));
+
+        assertThat(permissions).containsOnlyKeys(RoleName.values());
+        assertThat(permissions.get(RoleName.ROLE_ADMIN)).containsExactlyInAnyOrder(PermissionName.values());
+        assertThat(permissions.get(RoleName.ROLE_USER))
+                .containsExactlyInAnyOrder(PermissionName.READ_USERS, PermissionName.WRITE_USERS);
+    }
+
+    @Test
+    void createsTheHotPathIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'PUBLIC'", String.class);
+
+        List<String> uniqueConstraints = jdbcTemplate.queryForList(
+                "SELECT LOWER(CONSTRAINT_NAME) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+                        + "WHERE TABLE_NAME = 'USERS' AND CONSTRAINT_TYPE = 'UNIQUE'", String.class);
+
+        assertThat(indexes).contains(
+                "idx_user_roles_user_id_role_id",
+                "idx_role_permissions_role_id_permission_id",
+                "idx_refresh_tokens_expires_at");
+        assertThat(uniqueConstraints).containsExactlyInAnyOrder(
+                "uk_users_username", "uk_users_email", "uk_users_provider");
+    }
+}
@@ -0,0 +1,120 @@
+package com.prueba.login.audit;
+
+import com.prueba.login.authentication.api.events.LoginSucceeded;
+import com.prueba.login.user.api.dto.request.CreateUserRequest;
+import com.prueba.login.user.application.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.modulith.events.IncompleteEventPublications;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Registro de auditoría de extremo a extremo: los eventos llegan a audit_events y last_logins por el
+ * flush periódico, y un lote que no se puede escribir deja la publicación de Modulith pendiente.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:audit;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.audit.write-timeout=2s"
+})
+class AuditEventTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IncompleteEventPublications incompleteEventPublications;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void loginEventsAreAuditedAndUpsertTheLastLogin() {
+        Long userId = userService.createUser(
+                new CreateUserRequest("audited", "audited@example.com", "password123")).id();
+        Instant firstLogin = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Instant secondLogin = firstLogin.plusSeconds(60);
+
+        eventPublisher.publishEvent(new LoginSucceeded(userId, "audited", "10.0.0.1", firstLogin));
+        await().atMost(Duration.ofSeconds(5)).until(() -> lastLogin(userId) != null);
+        assertThat(lastLogin(userId)).isEqualTo(firstLogin);
+
+        eventPublisher.publishEvent(new LoginSucceeded(userId, "audited", "10.0.0.2", secondLogin));
+        await().atMost(Duration.ofSeconds(5)).until(() -> secondLogin.equals(lastLogin(userId)));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM last_logins WHERE user_id = ?",
+                Integer.class, userId)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT client_address FROM last_logins WHERE user_id = ?",
+                String.class, userId)).isEqualTo("10.0.0.2");
+        assertThat(auditRows("LOGIN_SUCCEEDED", "audited")).isEqualTo(2);
+        await().atMost(Duration.ofSeconds(5)).until(() -> auditRows("USER_REGISTERED", "audited") == 1);
+    }
+
+    @Test
+    void loginEventsFromAFailedFlushAreRetried() {
+        Long userId = userService.createUser(
+                new CreateUserRequest("retried", "retried@example.com", "password123")).id();
+        jdbcTemplate.execute("ALTER TABLE audit_events RENAME TO audit_events_offline");
+        try {
+            eventPublisher.publishEvent(new LoginSucceeded(userId, "retried", "10.0.0.3", Instant.now()));
+            // varios flush fallan mientras la tabla no está disponible
+            await().pollDelay(Duration.ofMillis(500)).atMost(Duration.ofSeconds(1))
+                    .until(() -> lastLogin(userId) == null);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE audit_events_offline RENAME TO audit_events");
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> auditRows("LOGIN_SUCCEEDED", "retried") == 1);
+        assertThat(lastLogin(userId)).isNotNull();
+    }
+
+    @Test
+    void failedFlushLeavesThePublicationIncompleteUntilResubmitted() {
+        jdbcTemplate.execute("ALTER TABLE audit_events RENAME TO audit_events_offline");
+        try {
+            userService.createUser(new CreateUserRequest("unaudited", "unaudited@example.com", "password123"));
+
+            // el listener espera al lote, que falla en cada flush: la publicación no debe completarse
+            await().atMost(Duration.ofSeconds(5)).until(() -> pendingPublications("unaudited") == 1);
+            await().during(Duration.ofSeconds(3)).atMost(Duration.ofSeconds(5))
+                    .until(() -> pendingPublications("unaudited") == 1);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE audit_events_offline RENAME TO audit_events");
+        }
+
+        incompleteEventPublications.resubmitIncompletePublications(publication ->
+                publication.getEvent().toString().contains("unaudited"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> pendingPublications("unaudited") == 0);
+        assertThat(auditRows("USER_REGISTERED", "unaudited")).isEqualTo(1);
+    }
+
+    private Instant lastLogin(Long userId) {
+        return jdbcTemplate.query("SELECT last_login_at FROM last_logins WHERE user_id = ?",
+                rs -> rs.next() ? rs.getObject(1, Timestamp.class).toInstant() : null, userId);
+    }
+
+    private int auditRows(String type, String username) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_events WHERE event_type = ? AND username = ?",
+                Integer.class, type, username);
+    }
+
+    private int pendingPublications(String username) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_publication "
+                        + "WHERE completion_date IS NULL AND listener_id LIKE '%AuditEventListener%' "
+                        + "AND serialized_event LIKE ?",
+                Integer.class, "%" + username + "%");
+    }
+}
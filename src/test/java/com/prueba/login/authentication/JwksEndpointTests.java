@@ -0,0 +1,51 @@
+package com.prueba.login.authentication;
+
+import com.prueba.login.authentication.internal.security.JwtKeyRing;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * El JWKS se sirve con ETag: el cliente revalida con 304 mientras no haya rotación.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class JwksEndpointTests {
+
+    private static final String JWKS = "/.well-known/jwks.json";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    @Test
+    void revalidatesWithEtagUntilTheKeysRotate() throws Exception {
+        String etag = mockMvc.perform(get(JWKS))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, public"))
+                .andExpect(content().json(jwtKeyRing.getJwksJson()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(JWKS).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        jwtKeyRing.rotate();
+
+        String rotatedEtag = mockMvc.perform(get(JWKS).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(rotatedEtag).isNotNull().isNotEqualTo(etag);
+    }
+}
@@ -0,0 +1,57 @@
+package com.prueba.login.authentication;
+
+import com.prueba.login.user.application.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Al alcanzar el umbral de fallos solo se bloquea en base de datos una cuenta que existe.
+ */
+@SpringBootTest(properties = {
+        "app.security.login.username.lockout-threshold=2",
+        "app.security.login.username.backoff-threshold=100"
+})
+@AutoConfigureMockMvc
+class LoginLockoutTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private UserService userService;
+
+    @Test
+    void locksKnownAccountsButSkipsTheUpdateForUnknownUsernames() throws Exception {
+        mockMvc.perform(post("/api/v1/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"lockout\",\"email\":\"lockout@example.com\",\"password\":\"password123\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(wrongPassword("ghost")).andExpect(status().is4xxClientError());
+        mockMvc.perform(wrongPassword("ghost")).andExpect(status().is4xxClientError());
+        verify(userService, never()).lockAccount(eq("ghost"), any());
+
+        mockMvc.perform(wrongPassword("lockout")).andExpect(status().is4xxClientError());
+        mockMvc.perform(wrongPassword("lockout")).andExpect(status().is4xxClientError());
+        verify(userService).lockAccount(eq("lockout"), any());
+    }
+
+    private static RequestBuilder wrongPassword(String username) {
+        return post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"wrong-password\"}");
+    }
+}
@@ -0,0 +1,78 @@
+package com.prueba.login.authentication;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Un login correcto con un hash heredado lo reemplaza por el del algoritmo vigente sin tocar
+ * la instancia que comparte la caché de búsquedas. El login pasa por el proveedor instrumentado.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PasswordUpgradeTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void loginUpgradesALegacyHash() throws Exception {
+        mockMvc.perform(post("/api/v1/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"legacy\",\"email\":\"legacy@example.com\",\"password\":\"password123\"}"))
+                .andExpect(status().isCreated());
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password123");
+        jdbcTemplate.update("UPDATE users SET password = ? WHERE username = 'legacy'", legacyHash);
+
+        UserDetails cached = userDetailsService.loadUserByUsername("legacy");
+        long checks = passwordMatches();
+        mockMvc.perform(login()).andExpect(status().isOk());
+        assertThat(passwordMatches()).isEqualTo(checks + 1);
+
+        assertThat(cached.getPassword()).as("la instancia compartida no se modifica").isEqualTo(legacyHash);
+        assertThat(userDetailsService.loadUserByUsername("legacy").getPassword())
+                .as("la caché se invalida y recarga el hash nuevo")
+                .startsWith("{bcrypt}");
+        assertThat(storedHash()).startsWith("{bcrypt}");
+
+        String upgraded = storedHash();
+        mockMvc.perform(login()).andExpect(status().isOk());
+        assertThat(storedHash()).isEqualTo(upgraded);
+    }
+
+    private long passwordMatches() {
+        return meterRegistry.get("auth.password.check").tag("outcome", "match").timer().count();
+    }
+
+    private String storedHash() {
+        return jdbcTemplate.queryForObject("SELECT password FROM users WHERE username = 'legacy'", String.class);
+    }
+
+    private static RequestBuilder login() {
+        return post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"legacy\",\"password\":\"password123\"}");
+    }
+}
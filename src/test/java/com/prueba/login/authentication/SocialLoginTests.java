@@ -0,0 +1,209 @@
+package com.prueba.login.authentication;
+
+import com.jayway.jsonpath.JsonPath;
+import com.prueba.login.user.internal.model.AuthProvider;
+import com.prueba.login.user.internal.model.Role;
+import com.prueba.login.user.internal.model.RoleName;
+import com.prueba.login.user.internal.repository.UserRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Login social contra un servidor de autorización simulado en local: el primer login crea el usuario
+ * y los siguientes lo reutilizan sin volver a consultarlo. También cubre que una cuenta deshabilitada
+ * pierda todas las vías de acceso.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class SocialLoginTests {
+
+    private static final String PROVIDER_ID = "583231";
+    private static final String DISABLED_PROVIDER_ID = "583232";
+    private static final AtomicInteger USER_INFO_REQUESTS = new AtomicInteger();
+    /**
+     * Identificador que devuelve el proveedor simulado en el siguiente login.
+     */
+    private static volatile String providerId = PROVIDER_ID;
+    private static final String PASSWORD_LOGIN = "{\"username\":\"disabled\",\"password\":\"password123\"}";
+    private static final HttpServer AUTHORIZATION_SERVER = startAuthorizationServer();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void oauth2Properties(DynamicPropertyRegistry registry) {
+        String baseUrl = "http://localhost:" + AUTHORIZATION_SERVER.getAddress().getPort();
+        registry.add("spring.security.oauth2.client.registration.github.client-id", () -> "test-github-client-id");
+        registry.add("spring.security.oauth2.client.registration.github.client-secret", () -> "test-github-secret");
+        registry.add("spring.security.oauth2.client.provider.github.authorization-uri", () -> baseUrl + "/authorize");
+        registry.add("spring.security.oauth2.client.provider.github.token-uri", () -> baseUrl + "/token");
+        registry.add("spring.security.oauth2.client.provider.github.user-info-uri", () -> baseUrl + "/user");
+    }
+
+    @AfterAll
+    static void stopAuthorizationServer() {
+        AUTHORIZATION_SERVER.stop(0);
+    }
+
+    @Test
+    void socialLoginCreatesUserOnceAndIssuesUsableJwt() throws Exception {
+        providerId = PROVIDER_ID;
+        int userInfoRequests = USER_INFO_REQUESTS.get();
+        MvcResult first = socialLogin();
+        String accessToken = JsonPath.read(first.getResponse().getContentAsString(), "$.accessToken");
+        assertThat((String) JsonPath.read(first.getResponse().getContentAsString(), "$.refreshToken")).isNotBlank();
+
+        MvcResult profile = mockMvc.perform(get("/api/v1/users/my-profile")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        String body = profile.getResponse().getContentAsString();
+        assertThat((String) JsonPath.read(body, "$.username")).isEqualTo("github_" + PROVIDER_ID);
+        assertThat((String) JsonPath.read(body, "$.email")).isEqualTo("octocat-" + PROVIDER_ID + "@example.com");
+        Long userId = userRepository.findByProviderWithRoles(AuthProvider.GITHUB, PROVIDER_ID).orElseThrow().getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        socialLogin();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(USER_INFO_REQUESTS).hasValue(userInfoRequests + 2);
+        assertThat(userRepository.findByProviderWithRoles(AuthProvider.GITHUB, PROVIDER_ID))
+                .hasValueSatisfying(user -> {
+                    assertThat(user.getId()).isEqualTo(userId);
+                    assertThat(user.getRoles()).extracting(Role::getName).containsExactly(RoleName.ROLE_USER);
+                });
+    }
+
+    @Test
+    void disablingAnAccountRejectsItsTokensPasswordAndSocialLogin() throws Exception {
+        mockMvc.perform(post("/api/v1/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"disabled\",\"email\":\"disabled@example.com\","
+                                + "\"password\":\"password123\"}"))
+                .andExpect(status().isCreated());
+        String login = mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PASSWORD_LOGIN))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String accessToken = JsonPath.read(login, "$.accessToken");
+        String refreshToken = JsonPath.read(login, "$.refreshToken");
+
+        providerId = DISABLED_PROVIDER_ID;
+        socialLogin();
+        Long socialUserId = userRepository.findByProviderWithRoles(AuthProvider.GITHUB, DISABLED_PROVIDER_ID)
+                .orElseThrow().getId();
+
+        disable(userRepository.findByUsernameWithRoles("disabled").orElseThrow().getId());
+        disable(socialUserId);
+
+        mockMvc.perform(get("/api/v1/users/my-profile")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PASSWORD_LOGIN))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().is4xxClientError());
+        startSocialLogin(new MockHttpSession()).andExpect(status().isUnauthorized());
+    }
+
+    private void disable(Long userId) throws Exception {
+        mockMvc.perform(patch("/api/v1/users/" + userId)
+                        .with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"enabled\":false}"))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Recorre el flujo authorization code: redirección al proveedor y callback con el código.
+     */
+    private MvcResult socialLogin() throws Exception {
+        return startSocialLogin(new MockHttpSession())
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private ResultActions startSocialLogin(MockHttpSession session) throws Exception {
+        MvcResult redirect = mockMvc.perform(get("/oauth2/authorization/github").session(session))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+        String state = URLDecoder.decode(UriComponentsBuilder.fromUriString(redirect.getResponse().getRedirectedUrl())
+                .build()
+                .getQueryParams()
+                .getFirst("state"), StandardCharsets.UTF_8);
+
+        return mockMvc.perform(get("/login/oauth2/code/github")
+                        .param("code", "mock-code")
+                        .param("state", state)
+                        .session(session));
+    }
+
+    private static HttpServer startAuthorizationServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/token", exchange -> respond(exchange,
+                    "{\"access_token\":\"mock-access-token\",\"token_type\":\"bearer\",\"scope\":\"read:user\"}"));
+            server.createContext("/user", exchange -> {
+                USER_INFO_REQUESTS.incrementAndGet();
+                respond(exchange, "{\"id\":" + providerId + ",\"login\":\"octocat\",\"email\":\"octocat-"
+                        + providerId + "@example.com\"}");
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
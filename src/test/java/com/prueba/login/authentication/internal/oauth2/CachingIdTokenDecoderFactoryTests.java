@@ -0,0 +1,127 @@
+package com.prueba.login.authentication.internal.oauth2;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica contra un proveedor simulado en local que el JWKS se descarga una sola vez
+ * y que una caída del proveedor no impide validar tokens de ID.
+ */
+class CachingIdTokenDecoderFactoryTests {
+
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+    private final AtomicBoolean providerDown = new AtomicBoolean();
+
+    private RSAKey signingKey;
+    private HttpServer provider;
+    private String issuer;
+    private CachingIdTokenDecoderFactory factory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("stub-key").generate();
+        byte[] jwks = new JWKSet(signingKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+
+        provider = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        provider.createContext("/jwks", exchange -> {
+            jwksRequests.incrementAndGet();
+            if (providerDown.get()) {
+                exchange.sendResponseHeaders(503, -1);
+            } else {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, jwks.length);
+                exchange.getResponseBody().write(jwks);
+            }
+            exchange.close();
+        });
+        provider.start();
+        issuer = "http://localhost:" + provider.getAddress().getPort();
+
+        factory = new SocialLoginHttpConfig(Duration.ofSeconds(1), Duration.ofSeconds(2))
+                .idTokenDecoderFactory(Duration.ofMillis(300), Duration.ofMillis(100),
+                        Duration.ofMillis(100), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.close();
+        provider.stop(0);
+    }
+
+    @Test
+    void jwksIsFetchedOnceForManyIdTokens() throws Exception {
+        JwtDecoder decoder = factory.createDecoder(registration());
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(decoder.decode(idToken("user-" + i)).getSubject()).isEqualTo("user-" + i);
+        }
+
+        assertThat(factory.createDecoder(registration())).isSameAs(decoder);
+        assertThat(jwksRequests).hasValue(1);
+    }
+
+    @Test
+    void idTokensStillValidateWhileProviderIsDown() throws Exception {
+        JwtDecoder decoder = factory.createDecoder(registration());
+        decoder.decode(idToken("before-outage"));
+
+        providerDown.set(true);
+        Thread.sleep(500);
+
+        assertThat(decoder.decode(idToken("during-outage")).getSubject()).isEqualTo("during-outage");
+        assertThat(jwksRequests.get()).isGreaterThan(1);
+    }
+
+    private ClientRegistration registration() {
+        return ClientRegistration.withRegistrationId("google")
+                .clientId("stub-client")
+                .clientSecret("stub-secret")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+                .scope("openid")
+                .authorizationUri(issuer + "/authorize")
+                .tokenUri(issuer + "/token")
+                .jwkSetUri(issuer + "/jwks")
+                .issuerUri(issuer)
+                .build();
+    }
+
+    private String idToken(String subject) throws JOSEException {
+        Instant now = Instant.now();
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .issuer(issuer)
+                        .subject(subject)
+                        .audience("stub-client")
+                        .issueTime(Date.from(now))
+                        .expirationTime(Date.from(now.plusSeconds(300)))
+                        .build());
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,128 @@
+package com.prueba.login.authentication.internal.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final BoundedPasswordEncoder encoder =
+            new BoundedPasswordEncoder(new BlockingEncoder(started, release), 1, 1, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void rejectsWithServiceUnavailableWhenTheQueueIsFull() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("running"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("queued"));
+        awaitQueued();
+
+        assertThatThrownBy(() -> encoder.matches("rejected", "hash"))
+                .isInstanceOf(PasswordHashingRejectedException.class)
+                .satisfies(e -> assertThat(AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class).code())
+                        .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(meterRegistry.get("password.hash.rejected").tag("pool", "password-hashing").counter().count())
+                .isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:queued");
+    }
+
+    @Test
+    void throttledPoolWaitsInsteadOfRejecting() throws Exception {
+        BoundedPasswordEncoder throttled = encoder.throttled("password-hashing-import", 1, meterRegistry);
+        try {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> throttled.encode("a"));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> throttled.encode("b"));
+            CompletableFuture<String> waiting = CompletableFuture.supplyAsync(() -> throttled.encode("c"));
+
+            assertThat(encoder.encode("login")).as("el pool de logins sigue libre").isEqualTo("hashed:login");
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:a");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:b");
+            assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:c");
+            assertThat(meterRegistry.get("password.hash.rejected").tag("pool", "password-hashing-import").counter()
+                    .count()).isZero();
+        } finally {
+            throttled.shutdown();
+        }
+    }
+
+    @Test
+    void hashesSubmittedToThePoolRunOnItsThreadsWithoutQueueingAgain() throws Exception {
+        BoundedPasswordEncoder throttled = encoder.throttled("password-hashing-import", 1, meterRegistry);
+        try {
+            release.countDown();
+            List<CompletableFuture<String>> hashes = Stream.of("a", "b", "c")
+                    .map(raw -> CompletableFuture.supplyAsync(() -> throttled.encode(raw), throttled.executor()))
+                    .toList();
+
+            assertThat(CompletableFuture.allOf(hashes.toArray(CompletableFuture[]::new)))
+                    .succeedsWithin(5, TimeUnit.SECONDS);
+            assertThat(hashes).extracting(CompletableFuture::join).containsExactly("hashed:a", "hashed:b", "hashed:c");
+        } finally {
+            throttled.shutdown();
+        }
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").tag("name", "password-hashing").gauge().value() < 1) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Encoder que retiene el primer hashing hasta que el test lo libera.
+     */
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (!"login".contentEquals(rawPassword)) {
+                started.countDown();
+                await();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return encodedPassword.equals(encode(rawPassword));
+        }
+
+        private void await() {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
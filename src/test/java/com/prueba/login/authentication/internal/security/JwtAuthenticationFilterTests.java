@@ -0,0 +1,49 @@
+package com.prueba.login.authentication.internal.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * El filtro JWT solo forma parte de la cadena de seguridad de la API, no de los filtros de servlet.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class JwtAuthenticationFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void eachRequestIsFilteredOnce() throws Exception {
+        String token = jwtTokenProvider.generateToken(-1L, new UsernamePasswordAuthenticationToken("filtered", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        long before = filtered();
+
+        mockMvc.perform(get("/api/v1/users?size=1").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+
+        assertThat(filtered() - before).isEqualTo(1);
+    }
+
+    private long filtered() {
+        return meterRegistry.get("jwt.filter").timers().stream().mapToLong(Timer::count).sum();
+    }
+}
@@ -0,0 +1,107 @@
+package com.prueba.login.authentication.internal.security;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTests {
+
+    @Test
+    void refusesPerInstanceKeysUnlessExplicitlyEnabled() {
+        assertThatThrownBy(() -> new JwtKeyRing(JwtKeyRing.RS256, "", "", "", List.of(), false, 3600000))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.jwt.signing.private-key");
+    }
+
+    @Test
+    void instancesSharingThePemPairAcceptEachOthersTokens() {
+        KeyPair keyPair = Jwts.SIG.RS256.keyPair().build();
+        String privateKey = pem("PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        String publicKey = pem("PUBLIC KEY", keyPair.getPublic().getEncoded());
+        JwtKeyRing first = new JwtKeyRing(JwtKeyRing.RS256, "", privateKey, publicKey, List.of(), false, 3600000);
+        JwtKeyRing second = new JwtKeyRing(JwtKeyRing.RS256, "", privateKey, publicKey, List.of(), false, 3600000);
+
+        String token = provider(first).generateToken(7L, authentication());
+
+        assertThat(provider(second).parseToken(token).userId()).isEqualTo(7L);
+        assertThat(second.getJwksJson()).isEqualTo(first.getJwksJson()).contains(first.current().kid());
+    }
+
+    @Test
+    void previousPublicKeysKeepVerifyingTheirTokensAfterAPemRotation() {
+        KeyPair oldPair = Jwts.SIG.ES256.keyPair().build();
+        KeyPair newPair = Jwts.SIG.ES256.keyPair().build();
+        String oldPublicKey = pem("PUBLIC KEY", oldPair.getPublic().getEncoded());
+        JwtKeyRing before = new JwtKeyRing(JwtKeyRing.ES256, "", pem("PRIVATE KEY", oldPair.getPrivate().getEncoded()),
+                oldPublicKey, List.of(), false, 3600000);
+        String signedBefore = provider(before).generateToken(3L, authentication());
+
+        JwtKeyRing after = new JwtKeyRing(JwtKeyRing.ES256, "", pem("PRIVATE KEY", newPair.getPrivate().getEncoded()),
+                pem("PUBLIC KEY", newPair.getPublic().getEncoded()), List.of(oldPublicKey), false, 3600000);
+
+        assertThat(after.current().kid()).isNotEqualTo(before.current().kid());
+        assertThat(after.getJwksJson()).contains(before.current().kid(), after.current().kid());
+        assertThat(provider(after).parseToken(signedBefore).userId()).isEqualTo(3L);
+        assertThat(provider(after).parseToken(provider(after).generateToken(4L, authentication())).userId())
+                .isEqualTo(4L);
+    }
+
+    @Test
+    void rotationPublishesTheNextKeyAheadAndKeepsTheRetiredOneForVerification() {
+        JwtKeyRing keyRing = new JwtKeyRing(JwtKeyRing.ES256, "", "", "", List.of(), true, 3600000);
+        JwtTokenProvider provider = provider(keyRing);
+        String signedBefore = provider.generateToken(1L, authentication());
+        String retiredKid = keyRing.current().kid();
+        String nextKid = nextKid(keyRing.getJwksJson(), retiredKid);
+
+        keyRing.rotate();
+
+        assertThat(keyRing.current().kid()).isEqualTo(nextKid);
+        assertThat(keyRing.getJwksJson()).contains(retiredKid, nextKid);
+        assertThat(provider.parseToken(signedBefore).userId()).isEqualTo(1L);
+        assertThat(provider.parseToken(provider.generateToken(2L, authentication())).userId()).isEqualTo(2L);
+    }
+
+    @Test
+    void symmetricKeysAreNeverPublished() {
+        JwtKeyRing keyRing = new JwtKeyRing(JwtKeyRing.HS512,
+                "key-ring-test-jwt-secret-key-for-testing-purposes-only-must-be-long-enough", "", "", List.of(), false,
+                3600000);
+
+        keyRing.rotate();
+
+        assertThat(keyRing.getJwksJson()).isEqualTo("{\"keys\":[]}");
+    }
+
+    private static String nextKid(String jwks, String currentKid) {
+        return Pattern.compile("\"kid\":\"([^\"]+)\"").matcher(jwks).results()
+                .map(match -> match.group(1))
+                .filter(kid -> !kid.equals(currentKid))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static JwtTokenProvider provider(JwtKeyRing keyRing) {
+        return new JwtTokenProvider(keyRing, 3600000, new SimpleMeterRegistry());
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n" + Base64.getMimeEncoder().encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication() {
+        return new UsernamePasswordAuthenticationToken("keyring", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
@@ -0,0 +1,60 @@
+package com.prueba.login.authentication.internal.security;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenProviderMetricsTests {
+
+    private static final String SECRET = "metrics-test-jwt-secret-key-for-testing-purposes-only-must-be-long-enough";
+    private static final String OTHER_SECRET = "another-jwt-secret-key-for-testing-purposes-only-that-is-long-enough";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtTokenProvider provider = provider(SECRET, 3600000, meterRegistry);
+
+    @Test
+    void countsEachVerificationUnderItsOutcome() {
+        String valid = provider.generateToken(authentication());
+        String expired = provider(SECRET, -1000, new SimpleMeterRegistry()).generateToken(authentication());
+        String forged = provider(OTHER_SECRET, 3600000, new SimpleMeterRegistry()).generateToken(authentication());
+
+        provider.parseToken(valid);
+        assertThat(provider.validateToken(expired)).isFalse();
+        assertThat(provider.validateToken(forged)).isFalse();
+        assertThatThrownBy(() -> provider.parseToken("not-a-jwt")).isInstanceOf(JwtException.class);
+
+        assertThat(verifications("valid")).isEqualTo(1);
+        assertThat(verifications("expired")).isEqualTo(1);
+        assertThat(verifications("bad-signature")).isEqualTo(1);
+        assertThat(verifications("malformed")).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.sign").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void carriesTheUserIdClaim() {
+        assertThat(provider.parseToken(provider.generateToken(42L, authentication())).userId()).isEqualTo(42L);
+        assertThat(provider.parseToken(provider.generateToken(authentication())).userId()).isNull();
+    }
+
+    private long verifications(String outcome) {
+        return meterRegistry.get("jwt.verify").tag("outcome", outcome).timer().count();
+    }
+
+    private static JwtTokenProvider provider(String secret, long expirationMs, SimpleMeterRegistry meterRegistry) {
+        return new JwtTokenProvider(new JwtKeyRing(JwtKeyRing.HS512, secret, "", "", List.of(), false, 3600000),
+                expirationMs, meterRegistry);
+    }
+
+    private static Authentication authentication() {
+        return new UsernamePasswordAuthenticationToken("metrics", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
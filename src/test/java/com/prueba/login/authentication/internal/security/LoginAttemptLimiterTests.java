@@ -0,0 +1,48 @@
+package com.prueba.login.authentication.internal.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptLimiterTests {
+
+    private static final String ADDRESS = "203.0.113.10";
+
+    private final LoginAttemptLimiter limiter = new LoginAttemptLimiter(Duration.ofMinutes(5), 3, 100, 3,
+            Duration.ofSeconds(1), Duration.ofMinutes(5), Duration.ofMinutes(15), 1000);
+
+    @Test
+    void successfulLoginsDoNotConsumeTheAddressQuota() {
+        for (int i = 0; i < 10; i++) {
+            limiter.checkAllowed("user" + i, ADDRESS);
+            limiter.recordSuccess("user" + i);
+        }
+
+        assertThatCode(() -> limiter.checkAllowed("another", ADDRESS)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void failuresFromAnAddressExhaustItsQuota() {
+        for (int i = 0; i < 3; i++) {
+            limiter.checkAllowed("sprayed" + i, ADDRESS);
+            limiter.recordFailure("sprayed" + i, ADDRESS);
+        }
+
+        assertThatThrownBy(() -> limiter.checkAllowed("sprayed-next", ADDRESS))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThatCode(() -> limiter.checkAllowed("sprayed-next", "203.0.113.11")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void locksTheAccountAtTheLockoutThreshold() {
+        assertThat(limiter.recordFailure("victim", null)).isNull();
+        assertThat(limiter.recordFailure("victim", null)).isNull();
+
+        assertThat(limiter.recordFailure("victim", null)).isNotNull();
+        assertThatThrownBy(() -> limiter.checkAllowed("Victim", null)).isInstanceOf(LoginThrottledException.class);
+    }
+}
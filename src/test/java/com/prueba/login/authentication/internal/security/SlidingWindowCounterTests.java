@@ -0,0 +1,74 @@
+package com.prueba.login.authentication.internal.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SlidingWindowCounterTests {
+
+    private static final long WINDOW = 60_000;
+
+    @Test
+    void countsEventsWithinTheCurrentWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter();
+        long start = WINDOW * 1000;
+
+        counter.increment(start, WINDOW);
+        counter.increment(start + 10, WINDOW);
+
+        assertThat(counter.increment(start + 20, WINDOW)).isEqualTo(3.0, within(0.01));
+    }
+
+    @Test
+    void weightsThePreviousWindowByTheRemainingOverlap() {
+        SlidingWindowCounter counter = new SlidingWindowCounter();
+        long start = WINDOW * 1000;
+        for (int i = 0; i < 10; i++) {
+            counter.increment(start, WINDOW);
+        }
+
+        // a mitad de la ventana siguiente cuenta la mitad de la anterior más el evento nuevo
+        assertThat(counter.increment(start + WINDOW + WINDOW / 2, WINDOW)).isEqualTo(6.0, within(0.01));
+    }
+
+    @Test
+    void estimateDoesNotRecordAnEvent() {
+        SlidingWindowCounter counter = new SlidingWindowCounter();
+        long start = WINDOW * 1000;
+        counter.increment(start, WINDOW);
+
+        assertThat(counter.estimate(start + 10, WINDOW)).isEqualTo(1.0, within(0.01));
+        assertThat(counter.estimate(start + 20, WINDOW)).isEqualTo(1.0, within(0.01));
+        assertThat(counter.estimate(start + WINDOW + WINDOW / 2, WINDOW)).isEqualTo(0.5, within(0.01));
+    }
+
+    @Test
+    void forgetsEventsOlderThanTwoWindows() {
+        SlidingWindowCounter counter = new SlidingWindowCounter();
+        long start = WINDOW * 1000;
+        for (int i = 0; i < 10; i++) {
+            counter.increment(start, WINDOW);
+        }
+
+        assertThat(counter.increment(start + 2 * WINDOW, WINDOW)).isEqualTo(1.0, within(0.01));
+    }
+
+    @Test
+    void doesNotLoseConcurrentIncrements() throws InterruptedException {
+        SlidingWindowCounter counter = new SlidingWindowCounter();
+        long start = WINDOW * 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8_000; i++) {
+            executor.execute(() -> counter.increment(start, WINDOW));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(counter.increment(start, WINDOW)).isEqualTo(8_001.0, within(0.01));
+    }
+}
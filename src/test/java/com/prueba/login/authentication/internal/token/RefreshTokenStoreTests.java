@@ -0,0 +1,197 @@
+package com.prueba.login.authentication.internal.token;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Rotación, detección de reutilización y escritura diferida de los refresh tokens. Cada test usa su
+ * propio almacén, sin el volcado programado, para controlar cuándo se escribe.
+ */
+@SpringBootTest
+class RefreshTokenStoreTests {
+
+    private static final AtomicLong USER_IDS = new AtomicLong(90_000);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void consumingRotatesTheTokenAndPersistsTheRevocation() {
+        ControlledJdbcTemplate jdbc = new ControlledJdbcTemplate(dataSource);
+        RefreshTokenStore store = store(jdbc);
+        long userId = USER_IDS.incrementAndGet();
+
+        String token = store.issue(userId);
+        store.flush();
+        assertThat(store.consume(token)).isEqualTo(userId);
+        store.flush();
+
+        assertThat(revokedCount(jdbc, userId)).isEqualTo(1);
+        assertThatThrownBy(() -> store(jdbc).consume(token))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token ya utilizado");
+    }
+
+    @Test
+    void reusingAConsumedTokenRevokesEveryTokenOfTheUser() {
+        ControlledJdbcTemplate jdbc = new ControlledJdbcTemplate(dataSource);
+        RefreshTokenStore store = store(jdbc);
+        long userId = USER_IDS.incrementAndGet();
+
+        String stolen = store.issue(userId);
+        String persisted = store.issue(userId);
+        store.flush();
+        String pending = store.issue(userId);
+        store.consume(stolen);
+
+        assertThatThrownBy(() -> store.consume(stolen))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token ya utilizado");
+        store.flush();
+
+        assertThatThrownBy(() -> store.consume(persisted)).isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> store.consume(pending))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token inválido");
+        assertThat(revokedCount(jdbc, userId)).isEqualTo(2);
+    }
+
+    @Test
+    void failedRevocationWriteIsRetriedOnTheNextFlush() {
+        ControlledJdbcTemplate jdbc = new ControlledJdbcTemplate(dataSource);
+        RefreshTokenStore store = store(jdbc);
+        long userId = USER_IDS.incrementAndGet();
+
+        String token = store.issue(userId);
+        store.flush();
+        store.consume(token);
+
+        jdbc.failNextRevocation = true;
+        assertThatThrownBy(store::flush).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(revokedCount(jdbc, userId)).isZero();
+
+        store.flush();
+        assertThat(revokedCount(jdbc, userId)).isEqualTo(1);
+    }
+
+    @Test
+    void partiallyWrittenInsertBatchIsRetriedWithoutBlockingRevocations() {
+        ControlledJdbcTemplate jdbc = new ControlledJdbcTemplate(dataSource);
+        RefreshTokenStore store = store(jdbc);
+        long userId = USER_IDS.incrementAndGet();
+
+        String consumed = store.issue(userId);
+        store.flush();
+        store.consume(consumed);
+        String first = store.issue(userId);
+        String second = store.issue(userId);
+
+        // el lote escribe una fila y falla: esa fila queda en BD con su hash aún pendiente
+        jdbc.failInsertAfterFirstRow = true;
+        assertThatThrownBy(store::flush).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(tokenCount(jdbc, userId)).isEqualTo(2);
+        assertThat(revokedCount(jdbc, userId)).isEqualTo(1);
+
+        store.flush();
+        assertThat(tokenCount(jdbc, userId)).isEqualTo(3);
+        assertThat(store(jdbc).consume(first)).isEqualTo(userId);
+        assertThat(store(jdbc).consume(second)).isEqualTo(userId);
+    }
+
+    @Test
+    void revokeAllWaitsForARunningFlush() throws Exception {
+        ControlledJdbcTemplate jdbc = new ControlledJdbcTemplate(dataSource);
+        RefreshTokenStore store = store(jdbc);
+        long userId = USER_IDS.incrementAndGet();
+        store.issue(userId);
+
+        jdbc.insertStarted = new CountDownLatch(1);
+        jdbc.releaseInsert = new CountDownLatch(1);
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(store::flush);
+        assertThat(jdbc.insertStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> revokeAll = CompletableFuture.runAsync(() -> store.revokeAll(userId));
+        assertThatThrownBy(() -> revokeAll.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        jdbc.releaseInsert.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        revokeAll.get(5, TimeUnit.SECONDS);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ? AND revoked = false",
+                Integer.class, userId)).isZero();
+    }
+
+    private RefreshTokenStore store(JdbcTemplate jdbc) {
+        return new RefreshTokenStore(refreshTokenRepository, jdbc, transactionManager, Duration.ofDays(30));
+    }
+
+    private static int tokenCount(JdbcTemplate jdbc, long userId) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ?", Integer.class, userId);
+    }
+
+    private static int revokedCount(JdbcTemplate jdbc, long userId) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ? AND revoked = true",
+                Integer.class, userId);
+    }
+
+    /**
+     * JdbcTemplate que puede fallar la siguiente escritura de revocaciones, cortar la de altas tras
+     * la primera fila o retenerla.
+     */
+    private static final class ControlledJdbcTemplate extends JdbcTemplate {
+
+        private volatile boolean failNextRevocation;
+        private volatile boolean failInsertAfterFirstRow;
+        private volatile CountDownLatch insertStarted;
+        private volatile CountDownLatch releaseInsert;
+
+        private ControlledJdbcTemplate(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            if (sql.startsWith("UPDATE") && failNextRevocation) {
+                failNextRevocation = false;
+                throw new DataAccessResourceFailureException("Conexión perdida");
+            }
+            if (sql.startsWith("INSERT") && failInsertAfterFirstRow) {
+                failInsertAfterFirstRow = false;
+                super.batchUpdate(sql, batchArgs.stream().limit(1).toList(), 1, pss);
+                throw new DataAccessResourceFailureException("Conexión perdida");
+            }
+            if (sql.startsWith("INSERT") && insertStarted != null) {
+                insertStarted.countDown();
+                try {
+                    releaseInsert.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.batchUpdate(sql, batchArgs, batchSize, pss);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.prueba.login.authentication.internal.token;
+
+import com.prueba.login.authentication.internal.security.JwtPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Revocaciones por jti y por usuario, y su conservación al recargar desde las tablas.
+ */
+@SpringBootTest
+class TokenRevocationRegistryTests {
+
+    private static final AtomicLong USER_IDS = new AtomicLong(80_000);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserTokenRevocationRepository userTokenRevocationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void revokesSingleTokensByJti() {
+        TokenRevocationRegistry registry = registry(revokedTokenRepository);
+        JwtPrincipal revoked = principal(USER_IDS.incrementAndGet(), "alice", Instant.now());
+        JwtPrincipal other = principal(revoked.userId(), "alice", Instant.now());
+
+        registry.revokeToken(revoked.tokenId(), revoked.expiresAt());
+
+        assertThat(registry.isRevoked(revoked)).isTrue();
+        assertThat(registry.isRevoked(other)).isFalse();
+        registry.reload();
+        assertThat(registry.isRevoked(revoked)).isTrue();
+    }
+
+    @Test
+    void userRevocationFollowsTheUserIdAcrossRenames() {
+        TokenRevocationRegistry registry = registry(revokedTokenRepository);
+        long userId = USER_IDS.incrementAndGet();
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        registry.revokeUser(userId, issuedAt);
+
+        assertThat(registry.isRevoked(principal(userId, "renamed", issuedAt))).isTrue();
+        assertThat(registry.isRevoked(principal(USER_IDS.incrementAndGet(), "renamed", issuedAt)))
+                .as("otro usuario que reutiliza el nombre")
+                .isFalse();
+        assertThat(registry.isRevoked(principal(userId, "renamed", issuedAt.plusSeconds(5)))).isFalse();
+        assertThat(registry.isRevoked(principal(null, "legacy", issuedAt.plusSeconds(5))))
+                .as("token sin claim uid")
+                .isTrue();
+
+        registry.reload();
+        assertThat(registry.isRevoked(principal(userId, "renamed", issuedAt))).isTrue();
+    }
+
+    @Test
+    void reloadKeepsRevocationsMadeWhileItQueries() {
+        AtomicReference<TokenRevocationRegistry> registry = new AtomicReference<>();
+        JwtPrincipal revokedDuringReload = principal(USER_IDS.incrementAndGet(), "bob", Instant.now());
+        RevokedTokenRepository racingRepository = (RevokedTokenRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(revokedTokenRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (method.getName().equals("findActive")) {
+                        registry.get().revokeToken(revokedDuringReload.tokenId(), revokedDuringReload.expiresAt());
+                    }
+                    return result;
+                });
+        registry.set(registry(racingRepository));
+
+        registry.get().reload();
+
+        assertThat(registry.get().isRevoked(revokedDuringReload)).isTrue();
+    }
+
+    private TokenRevocationRegistry registry(RevokedTokenRepository repository) {
+        return new TokenRevocationRegistry(repository, userTokenRevocationRepository, transactionManager, 900000);
+    }
+
+    private static JwtPrincipal principal(Long userId, String username, Instant issuedAt) {
+        return new JwtPrincipal(UUID.randomUUID().toString(), username, userId, "ROLE_USER",
+                issuedAt, issuedAt.plusSeconds(900));
+    }
+}
@@ -0,0 +1,100 @@
+package com.prueba.login.user;
+
+import com.prueba.login.user.internal.authority.AuthoritySnapshot;
+import com.prueba.login.user.internal.authority.RoleAuthorityIndex;
+import com.prueba.login.user.internal.model.CustomerUser;
+import com.prueba.login.user.internal.model.Permission;
+import com.prueba.login.user.internal.model.PermissionName;
+import com.prueba.login.user.internal.model.Role;
+import com.prueba.login.user.internal.model.RoleName;
+import com.prueba.login.user.internal.repository.PermissionRepository;
+import com.prueba.login.user.internal.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El índice de autoridades se reconstruye al confirmar cambios que solo tocan role_permissions,
+ * y no antes.
+ */
+@SpringBootTest
+class RoleAuthorityIndexTests {
+
+    @Autowired
+    private RoleAuthorityIndex roleAuthorityIndex;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long moderatorId;
+    private Permission readRoles;
+
+    @BeforeEach
+    void setUp() {
+        readRoles = permissionRepository.findByName(PermissionName.READ_ROLES)
+                .orElseGet(() -> permissionRepository.save(Permission.builder().name(PermissionName.READ_ROLES).build()));
+        moderatorId = roleRepository.findByName(RoleName.ROLE_MODERATOR)
+                .orElseGet(() -> roleRepository.save(Role.builder().name(RoleName.ROLE_MODERATOR).build()))
+                .getId();
+        updateModerator(role -> role.getPermissions().removeIf(p -> p.getName() == PermissionName.READ_ROLES));
+    }
+
+    @Test
+    void grantingAndRevokingAPermissionRebuildsTheIndexAfterCommit() {
+        updateModerator(role -> {
+            role.getPermissions().add(readRoles);
+            assertThat(moderatorPermissions()).doesNotContain("READ_ROLES");
+        });
+        assertThat(moderatorPermissions()).contains("READ_ROLES");
+
+        updateModerator(role -> role.getPermissions().removeIf(p -> p.getName() == PermissionName.READ_ROLES));
+        assertThat(moderatorPermissions()).doesNotContain("READ_ROLES");
+    }
+
+    @Test
+    void rolledBackChangesLeaveTheIndexUntouched() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            roleRepository.findById(moderatorId).orElseThrow().getPermissions().add(readRoles);
+            roleRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(moderatorPermissions()).doesNotContain("READ_ROLES");
+    }
+
+    @Test
+    void resolvesDetachedUsersWithoutTouchingTheirLazyPermissions() {
+        updateModerator(role -> role.getPermissions().add(readRoles));
+        // fuera de una transacción: los permisos del rol quedan sin inicializar
+        Role detached = roleRepository.findById(moderatorId).orElseThrow();
+        CustomerUser user = CustomerUser.builder().username("detached").roles(Set.of(detached)).build();
+
+        assertThat(roleAuthorityIndex.authoritiesOf(user)).extracting(GrantedAuthority::getAuthority)
+                .contains("ROLE_MODERATOR", "READ_ROLES");
+    }
+
+    private void updateModerator(Consumer<Role> change) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                change.accept(roleRepository.findById(moderatorId).orElseThrow()));
+    }
+
+    private Set<String> moderatorPermissions() {
+        return roleAuthorityIndex.current().permissionNames(AuthoritySnapshot.bit(RoleName.ROLE_MODERATOR));
+    }
+}
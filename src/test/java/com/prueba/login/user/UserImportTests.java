@@ -0,0 +1,160 @@
+package com.prueba.login.user;
+
+import com.jayway.jsonpath.JsonPath;
+import com.prueba.login.user.api.dto.response.UserImportResult;
+import com.prueba.login.user.application.UserImportService;
+import com.prueba.login.user.internal.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Importación masiva: formatos de entrada, duplicados dentro del bloque y contra la base de datos,
+ * y reintento fila a fila cuando el lote choca con un alta concurrente.
+ */
+@SpringBootTest(properties = "app.users.import.chunk-size=3")
+@AutoConfigureMockMvc
+class UserImportTests {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @Test
+    void importsCsvWithQuotedFieldsAndReordersColumns() throws IOException {
+        List<UserImportResult> results = importUsers(UserImportService.Format.CSV, """
+                email,password,username
+                csv-one@example.com,password123,csv-one
+                "csv-two@example.com","pass,word""123",csv-two
+                csv-three@example.com,short,csv-three
+                csv-four@example.com
+                """);
+
+        assertThat(results).extracting(UserImportResult::line, UserImportResult::status, UserImportResult::username)
+                .containsExactly(
+                        tuple(2L, "CREATED", "csv-one"),
+                        tuple(3L, "CREATED", "csv-two"),
+                        tuple(4L, "REJECTED", "csv-three"),
+                        tuple(5L, "REJECTED", null));
+        assertThat(results.get(2).error()).contains("8 caracteres");
+        assertThat(results.get(3).error()).isEqualTo("Faltan columnas en la fila CSV");
+        assertThat(userRoles("csv-one")).isEqualTo(1);
+        assertThat(userRoles("csv-two")).isEqualTo(1);
+    }
+
+    @Test
+    void importsNdjsonAndRejectsDuplicatesInTheFileAndInTheDatabase() throws IOException {
+        importUsers(UserImportService.Format.NDJSON, row("taken", "taken@example.com"));
+
+        List<UserImportResult> results = importUsers(UserImportService.Format.NDJSON,
+                row("json-one", "json-one@example.com")
+                        + row("JSON-ONE", "json-other@example.com")
+                        + row("json-two", "JSON-ONE@example.com")
+                        + "{not json\n"
+                        + row("taken", "fresh@example.com")
+                        + row("json-three", "taken@example.com")
+                        + row("json-one", "next-chunk@example.com"));
+
+        assertThat(results).extracting(UserImportResult::line, UserImportResult::status, UserImportResult::error)
+                .containsExactly(
+                        tuple(1L, "CREATED", null),
+                        tuple(2L, "REJECTED", "Nombre de usuario repetido en la importación"),
+                        tuple(3L, "REJECTED", "Email repetido en la importación"),
+                        tuple(4L, "REJECTED", "JSON inválido"),
+                        tuple(5L, "REJECTED", "El nombre de usuario ya está en uso"),
+                        tuple(6L, "REJECTED", "El email ya está registrado"),
+                        tuple(7L, "REJECTED", "Nombre de usuario repetido en la importación"));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE LOWER(username) = 'json-one'",
+                Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void retriesRowByRowWhenTheBatchHitsAConcurrentRegistration() throws IOException {
+        importUsers(UserImportService.Format.NDJSON, row("raced", "raced@example.com"));
+        // simula un alta concurrente entre la comprobación de unicidad y la inserción del bloque
+        doReturn(List.of()).when(userRepository).findExistingUsernames(any());
+        doReturn(List.of()).when(userRepository).findExistingEmails(any());
+
+        List<UserImportResult> results = importUsers(UserImportService.Format.NDJSON,
+                row("race-one", "race-one@example.com")
+                        + row("raced", "raced@example.com")
+                        + row("race-two", "race-two@example.com"));
+
+        assertThat(results).extracting(UserImportResult::line, UserImportResult::status)
+                .containsExactly(tuple(1L, "CREATED"), tuple(2L, "REJECTED"), tuple(3L, "CREATED"));
+        assertThat(results.get(1).error()).isEqualTo("El nombre de usuario o el email ya están registrados");
+        assertThat(userRoles("race-one")).isEqualTo(1);
+        assertThat(userRoles("race-two")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username = 'raced'",
+                Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void importEndpointStreamsOneResultPerRow() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/users/import")
+                        .with(user("importer").roles("ADMIN"))
+                        .contentType("text/csv")
+                        .content("username,email,password\nendpoint-one,endpoint-one@example.com,password123\n"
+                                + "endpoint-one,endpoint-two@example.com,password123\n"))
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<Object> statuses = body.lines().map(line -> JsonPath.read(line, "$.status")).toList();
+        assertThat(statuses).containsExactly("CREATED", "REJECTED");
+    }
+
+    @Test
+    void importEndpointRequiresTheAdminRole() throws Exception {
+        mockMvc.perform(post("/api/v1/users/import")
+                        .with(user("plain").roles("USER"))
+                        .contentType("application/x-ndjson")
+                        .content(row("forbidden", "forbidden@example.com")))
+                .andExpect(status().isForbidden());
+    }
+
+    private List<UserImportResult> importUsers(UserImportService.Format format, String body) throws IOException {
+        List<UserImportResult> results = new ArrayList<>();
+        userImportService.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                format, results::add);
+        return results;
+    }
+
+    private int userRoles(String username) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_roles ur JOIN users u ON u.id = ur.user_id "
+                + "WHERE u.username = ?", Integer.class, username);
+    }
+
+    private static String row(String username, String email) {
+        return "{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"password\":\"password123\"}\n";
+    }
+}
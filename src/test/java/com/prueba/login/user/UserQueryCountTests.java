@@ -0,0 +1,151 @@
+package com.prueba.login.user;
+
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifica el número exacto de sentencias SQL que ejecuta cada endpoint de usuarios.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class UserQueryCountTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String username;
+    private long userId;
+    private String bearerToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        username = "counted" + SEQUENCE.incrementAndGet();
+        MvcResult registered = mockMvc.perform(register(username)).andExpect(status().isCreated()).andReturn();
+        userId = ((Number) JsonPath.read(registered.getResponse().getContentAsString(), "$.id")).longValue();
+        mockMvc.perform(register("other" + username)).andExpect(status().isCreated());
+
+        MvcResult login = mockMvc.perform(login(username)).andExpect(status().isOk()).andReturn();
+        bearerToken = "Bearer " + JsonPath.read(login.getResponse().getContentAsString(), "$.accessToken");
+    }
+
+    @Test
+    void getUserByIdUsesOneStatement() throws Exception {
+        assertStatements(1, get("/api/v1/users/" + userId).header("Authorization", bearerToken));
+    }
+
+    @Test
+    void getAllUsersUsesOneStatementForIdsAndOneForTheGraph() throws Exception {
+        assertStatements(2, get("/api/v1/users?size=5").header("Authorization", bearerToken));
+    }
+
+    @Test
+    void streamAllUsersUsesOneStatement() throws Exception {
+        statistics.clear();
+        MvcResult result = mockMvc.perform(get("/api/v1/users")
+                        .accept("application/x-ndjson")
+                        .header("Authorization", bearerToken))
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        List<Object> ids = body.lines().map(line -> JsonPath.read(line, "$.id")).toList();
+        assertThat(ids).doesNotHaveDuplicates().contains((int) userId);
+    }
+
+    @Test
+    void myProfileUsesOneStatementAndThenTheCache() throws Exception {
+        assertStatements(1, get("/api/v1/users/my-profile").header("Authorization", bearerToken));
+        assertStatements(0, get("/api/v1/users/my-profile").header("Authorization", bearerToken));
+    }
+
+    @Test
+    void loginUsesOneStatement() throws Exception {
+        assertStatements(1, login("other" + username));
+    }
+
+    @Test
+    void unknownUsernameIsRememberedUntilRegistered() throws Exception {
+        String unknown = "unknown" + username;
+
+        statistics.clear();
+        mockMvc.perform(login(unknown)).andExpect(status().is4xxClientError());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        mockMvc.perform(login(unknown)).andExpect(status().is4xxClientError());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        mockMvc.perform(register(unknown)).andExpect(status().isCreated());
+        mockMvc.perform(login(unknown)).andExpect(status().isOk());
+    }
+
+    @Test
+    void registerUsesUserInsertAndRoleInsert() throws Exception {
+        assertStatements(2, register("registered" + SEQUENCE.incrementAndGet()));
+    }
+
+    @Test
+    void updateUserUsesGraphLoadEmailCheckAndUpdate() throws Exception {
+        assertStatements(3, patch("/api/v1/users/" + userId)
+                .header("Authorization", bearerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"updated" + userId + "@example.com\"}"));
+    }
+
+    @Test
+    void deleteUserUsesLoadTwoDeletesAndTokenRevocation() throws Exception {
+        // carga + borrado de roles y usuario; tras el commit: upsert de la marca de revocación y refresh tokens
+        assertStatements(6, delete("/api/v1/users/" + userId).header("Authorization", bearerToken));
+    }
+
+    private void assertStatements(long expected, RequestBuilder request) throws Exception {
+        statistics.clear();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        assertThat(result.getResponse().getStatus()).isLessThan(300);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+    }
+
+    private static RequestBuilder register(String username) {
+        return post("/api/v1/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"email\":\"" + username
+                        + "@example.com\",\"password\":\"password123\"}");
+    }
+
+    private static RequestBuilder login(String username) {
+        return post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"password123\"}");
+    }
+}
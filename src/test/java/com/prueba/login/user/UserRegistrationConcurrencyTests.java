@@ -0,0 +1,93 @@
+package com.prueba.login.user;
+
+import com.prueba.login.user.api.dto.request.CreateUserRequest;
+import com.prueba.login.user.application.UserService;
+import com.prueba.login.user.internal.exceptions.BadRequestException;
+import com.prueba.login.user.internal.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que los registros simultáneos con el mismo usuario o email no producen duplicados.
+ */
+@SpringBootTest
+class UserRegistrationConcurrencyTests {
+
+    private static final int THREADS = 16;
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentRegistrationsWithSameUsernameCreateOneUser() throws Exception {
+        String username = "racer" + SEQUENCE.incrementAndGet();
+
+        List<String> errors = registerConcurrently(i ->
+                new CreateUserRequest(username, username + i + "@example.com", "password123"));
+
+        assertThat(errors).hasSize(THREADS - 1).containsOnly("El nombre de usuario ya está en uso");
+        assertThat(userRepository.existsByUsername(username)).isTrue();
+    }
+
+    @Test
+    void concurrentRegistrationsWithSameEmailCreateOneUser() throws Exception {
+        String email = "racer" + SEQUENCE.incrementAndGet() + "@example.com";
+
+        List<String> errors = registerConcurrently(i ->
+                new CreateUserRequest("mail" + SEQUENCE.get() + "x" + i, email, "password123"));
+
+        assertThat(errors).hasSize(THREADS - 1).containsOnly("El email ya está registrado");
+        assertThat(userRepository.existsByEmail(email)).isTrue();
+    }
+
+    /**
+     * Lanza todos los registros a la vez y devuelve los mensajes de los rechazados.
+     */
+    private List<String> registerConcurrently(IntFunction<CreateUserRequest> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                CreateUserRequest request = requests.apply(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        userService.createUser(request);
+                        return null;
+                    } catch (BadRequestException e) {
+                        return e.getMessage();
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<String> errors = new ArrayList<>();
+            for (Future<String> future : futures) {
+                String error = future.get();
+                if (error != null) {
+                    errors.add(error);
+                }
+            }
+            return errors;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.prueba.login.user.application;
+
+import com.prueba.login.user.internal.model.CustomerUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserLookupCacheTests {
+
+    private final UserLookupCache cache = new UserLookupCache(100, Duration.ofMinutes(5), 100,
+            Duration.ofMinutes(10), Duration.ofHours(1), new SimpleMeterRegistry());
+
+    @Test
+    void evictingTheStoredUsernameDropsEntriesLoadedWithAnotherCase() {
+        CustomerUser stale = CustomerUser.builder().username("alice").password("old").build();
+        CustomerUser fresh = CustomerUser.builder().username("alice").password("new").build();
+
+        assertThat(cache.getUserDetails("Alice", name -> stale)).isSameAs(stale);
+        assertThat(cache.getUserDetails("ALICE", name -> fresh)).as("misma entrada").isSameAs(stale);
+
+        cache.evictAfterCommit("alice");
+
+        assertThat(cache.getUserDetails("Alice", name -> fresh)).isSameAs(fresh);
+    }
+
+    @Test
+    void loaderReceivesTheRequestedUsername() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.getUserDetails("Bob", name -> {
+            loads.incrementAndGet();
+            assertThat(name).isEqualTo("Bob");
+            return null;
+        })).isNull();
+        assertThat(cache.getUserDetails("bob", name -> {
+            loads.incrementAndGet();
+            return null;
+        })).as("ausencia recordada").isNull();
+        assertThat(loads).hasValue(1);
+
+        cache.evictAfterCommit("bob");
+        CustomerUser registered = CustomerUser.builder().username("bob").build();
+        assertThat(cache.getUserDetails("BOB", name -> registered)).isSameAs(registered);
+    }
+}